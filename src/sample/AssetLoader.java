@@ -0,0 +1,60 @@
+/**
+ * @File: AssetLoader.java
+ * @Author: Abhi Gupta
+ * @Description: This class decodes the pages of the texture atlas on a pool of background threads so that the window can be shown right
+ *               away instead of waiting for every image. The pages required by the menu are loaded first, while the rest are loaded
+ *               afterwards and simply appear once they are ready.
+ */
+
+package sample;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleConsumer;
+
+public class AssetLoader {
+    private final ExecutorService pool;
+
+    public AssetLoader() {
+        int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), Img.REQUIRED_PAGES.length));
+        pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "asset-loader");
+            thread.setDaemon(true);     // the loader must never keep the game from exiting
+            return thread;
+        });
+    }
+
+    /**
+     * Decodes the specified pages of the atlas in parallel
+     * @param pages the names of the pages to be loaded
+     * @param progress receives the fraction of the pages that have been loaded so far, on the JavaFX Application Thread
+     * @return completes once every page has been decoded and handed to its textures
+     */
+    public CompletableFuture<Void> load(String[] pages, DoubleConsumer progress) {
+        AtomicInteger loaded = new AtomicInteger();
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[pages.length];
+        for (int i = 0; i < pages.length; i++) {
+            String page = pages[i];
+            tasks[i] = CompletableFuture.supplyAsync(() -> Img.decodePage(page), pool).thenAccept(image -> {
+                Img.install(page, image);
+                double fraction = (double) loaded.incrementAndGet() / pages.length;
+                if (progress != null) Platform.runLater(() -> progress.accept(fraction));
+            });
+        }
+        return CompletableFuture.allOf(tasks);
+    }
+
+    /**
+     * Loads the pages that aren't needed right away, the textures of these pages must check whether or not they are loaded before being drawn
+     */
+    public void loadLazily(String[] pages) {
+        load(pages, null).whenComplete((done, error) -> {
+            if (error != null) error.printStackTrace();
+            pool.shutdown();
+        });
+    }
+}
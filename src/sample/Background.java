@@ -0,0 +1,121 @@
+/**
+ * @File: Background.java
+ * @Author: Abhi Gupta
+ * @Description: This class draws the static part of the background, the grass and the trees. Since none of it ever changes, it is
+ *               rendered once into a cached image which is then drawn on to the canvas with a single call every frame. The image is
+ *               only rendered again when the size of the canvas changes or when the palette is invalidated.
+ */
+
+package sample;
+
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+public class Background {
+    private WritableImage image;    // the cached image of the background
+    private double width;           // the width of the canvas the image was rendered for
+    private double height;          // the height of the canvas the image was rendered for
+
+    /**
+     * Draws the background on to the canvas, rendering it again only if it is out of date
+     * @param gc the graphics context of the canvas
+     */
+    public void draw(GraphicsContext gc) {
+        Canvas canvas = gc.getCanvas();
+        if (isOutOfDate(canvas)) {
+            rasterize(canvas.getWidth(), canvas.getHeight());
+        }
+        gc.drawImage(image, 0, 0);
+    }
+
+    /**
+     * Returns whether or not the cached image has to be rendered again before it can be drawn on to the canvas
+     */
+    public boolean isOutOfDate(Canvas canvas) {
+        return image == null || canvas.getWidth() != width || canvas.getHeight() != height;
+    }
+
+    /**
+     * Discards the cached image so that it is rendered again on the next frame (call this when the colours of the palette change)
+     */
+    public void invalidate() {
+        image = null;
+    }
+
+    /**
+     * Renders all of the elements of the background including the trees and the hills into the cached image
+     * @param width the width of the canvas
+     * @param height the height of the canvas
+     */
+    private void rasterize(double width, double height) {
+        this.width = width;
+        this.height = height;
+        Canvas canvas = new Canvas(width, height);
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        drawBase(gc);
+        drawGrass(gc);
+        drawTree(gc,195,height-170,205,575,Colour.DARK_GREEN,Colour.FOREST_GREEN);
+        drawTree(gc,285,height-170,150,520,Colour.BRIGHT_GREEN,Colour.DEEP_GREEN);
+        drawTree(gc,-16,height-170,150,530,Colour.DARK_GREEN,Colour.FOREST_GREEN);
+        drawTree(gc,50,height-170,130,470,Colour.BRIGHT_GREEN,Colour.DEEP_GREEN);
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);      // the clouds behind the background must still show through
+        image = canvas.snapshot(parameters, null);
+    }
+
+    /**
+     * Draws and renders the grass spikes
+     */
+    private void drawGrass(GraphicsContext gc) {
+        for (int i = 0; i < 9; i++) {
+            int offset = i*50-35;
+            gc.setFill(Colour.LIME);
+            gc.fillPolygon(new double[]{offset,25+offset,50+offset}, new double[]{height-145,height-120,height-145},3);
+        }
+    }
+
+    /**
+     * Draws and renders the grass layer
+     */
+    private void drawBase(GraphicsContext gc) {
+        gc.setFill(Colour.GRASS_GREEN);
+        gc.fillRect(0,height-145,width,145);
+        gc.setFill(Colour.LIME);
+        gc.fillRect(0,height-155,width,10);
+        gc.setFill(Colour.ELECTRIC_GREEN);
+        gc.fillRect(0,height-170,width,15);
+    }
+
+    /**
+     * Draws and renders a tree of specified dimensions
+     * @param x the x position of the tree
+     * @param y the y position of the tree
+     * @param width the width of the tree
+     * @param height the height of the tree
+     * @param left the colour of the left side of the tree
+     * @param right the colour of the right side of the tree
+     */
+    private void drawTree(GraphicsContext gc, double x, double y, double width, double height, Color left, Color right) {
+        double tempWidth = width < 120 ? 60 : width;
+        double offset = 6; double offsetY = Math.pow(tempWidth,2)/1000;
+        if (height > 400) {
+            offset = 8;
+        } else if (height <= 350) {
+            offset = 4;
+        }
+        gc.setFill(left);
+        // Base L
+        gc.fillPolygon(new double[]{x,x+width/2,x+width/2}, new double[]{y,this.height-height,y},3);
+        // Tip L
+        gc.fillPolygon(new double[]{x+width/offset,x+width/2,x+width/2}, new double[]{y*3/4-offsetY,this.height-height,y*3/4-offsetY},3);
+
+        gc.setFill(right);
+        // Base R
+        gc.fillPolygon(new double[]{x+width/2,x+width/2,x+width}, new double[]{y,this.height-height,y},3);
+        // Tip R
+        gc.fillPolygon(new double[]{x+width/2,x+width/2,x+width*((offset-1)/offset)}, new double[]{y*3/4-offsetY,this.height-height,y*3/4-offsetY},3);
+    }
+}
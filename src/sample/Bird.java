@@ -7,25 +7,23 @@
 
 package sample;
 
-import javafx.collections.ObservableList;
-import javafx.scene.Node;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
+import java.nio.ByteBuffer;
 
 public class Bird extends Sprite {
-    // Motion Thresholds
-    private final double A = 1;
-    private final double MAX_VELOCITY = 8;
-    private final double G = 0.45;
-    public double GForce = A+G;
-    // Position Thresholds
-    private double lowerBoundX = -20;
-    private double lowerBoundY = 80;
-    private double upperBoundX;
-    private double upperBoundY = 439;
+    // Motion Thresholds (in fixed-point)
+    private final int A = Fixed.ONE;
+    private final int MAX_VELOCITY = Fixed.of(8);
+    private final int G = Fixed.of(0.45);
+    public int GForce = A+G;
+    // Position Thresholds (in fixed-point)
+    private int lowerBoundX = Fixed.of(-20);
+    private long lowerBoundY = Fixed.of(80);
+    private int upperBoundX;
+    private long upperBoundY = Fixed.of(439);
     // Stats
     private boolean slowed = false;
-    private ImageView bird;
+    private Texture facing;             // the image of the bird facing the direction it last moved in
+    private int rotation = 0;           // the rotation of the bird (when it is climbing a wall)
     private boolean alive = true;
     private boolean checkAgain = true;
     // Data about Transporter
@@ -41,11 +39,11 @@ public class Bird extends Sprite {
      * @param bird the bird image to be rendered on the screen
      * @param transporterInfo basic properties of the boxes that will fall down to allow for accurate collision detection
      */
-    public Bird(Image bird, int[] transporterInfo) {
+    public Bird(Texture bird, int[] transporterInfo) {
         super();
         setImage(bird);
-        this.bird = new ImageView(image);
-        upperBoundX = 400-image.getWidth()+20;   // 20 is padding for beak
+        facing = bird;
+        upperBoundX = Fixed.of(400+20)-width;   // 20 is padding for beak
         NUM_OF_BOXES = transporterInfo[0];
         COLUMN_OF_BOXES = NUM_OF_BOXES;
         rowHeight = transporterInfo[1];
@@ -63,7 +61,7 @@ public class Bird extends Sprite {
      * Activates gravity acting on the bird in the scene graph
      */
     public void activateG() {
-        GForce = 1.6*(A+G);
+        GForce = (A+G)*8/5;     // 1.6 times
     }
 
     /**
@@ -75,12 +73,12 @@ public class Bird extends Sprite {
             case RIGHT:
                 addVelocity(A,0);
                 velocityX = Math.min(MAX_VELOCITY,velocityX);
-                bird.setImage(Img.birdRight);
+                facing = Img.birdRight;
                 break;
             case LEFT:
                 addVelocity(-A,0);
                 velocityX = Math.max(-MAX_VELOCITY,velocityX);
-                bird.setImage(Img.birdLeft);
+                facing = Img.birdLeft;
                 break;
             case UP:
                 addVelocity(0,G-A);
@@ -104,40 +102,40 @@ public class Bird extends Sprite {
      * Sets the highest y-position that the bird can move up to.
      * @param y the y-position threshold
      */
-    public void setLowerBoundsY(double y) { lowerBoundY = y; }
+    public void setLowerBoundsY(double y) { lowerBoundY = Fixed.position(y); }
 
     /**
      * Sets the lowest y-position that the bird can move up to.
      * @param y the y-position threshold
      */
-    public void setUpperBoundsY(double y) { upperBoundY = y; }
+    public void setUpperBoundsY(double y) { upperBoundY = Fixed.position(y); }
 
     /**
      * Sets the left-most x-position that the bird can move to.
      * @param x the x-position threshold
      */
-    public void setLowerBoundsX(double x) { lowerBoundX = x; }
+    public void setLowerBoundsX(double x) { lowerBoundX = Fixed.of(x); }
 
     /**
      * Sets the right-most x-position that the bird can move to.
      * @param x the x-position threshold
      */
-    public void setUpperBoundsX(double x) { upperBoundX = x; }
+    public void setUpperBoundsX(double x) { upperBoundX = Fixed.of(x); }
 
-    public double getLowerBoundsY() { return lowerBoundY; }
+    public double getLowerBoundsY() { return Fixed.toDouble(lowerBoundY); }
 
-    public double getUpperBoundsY() { return upperBoundY; }
+    public double getUpperBoundsY() { return Fixed.toDouble(upperBoundY); }
 
-    public double getLowerBoundsX() { return lowerBoundX; }
+    public double getLowerBoundsX() { return Fixed.toDouble(lowerBoundX); }
 
-    public double getUpperBoundsX() { return upperBoundX; }
+    public double getUpperBoundsX() { return Fixed.toDouble(upperBoundX); }
 
     /**
      * Rotates the bird to the specified angle
      * @param angle the amount of rotation
      */
     public void rotate(int angle) {
-        bird.setRotate(angle);
+        rotation = angle;
     }
 
     /**
@@ -148,90 +146,114 @@ public class Bird extends Sprite {
         super.update();
         positionX = Math.min(Math.max(positionX,lowerBoundX),upperBoundX);
         positionY = Math.min(Math.max(positionY,lowerBoundY),upperBoundY);
-        bird.setX(positionX); bird.setY(positionY);
     }
 
     /**
      * Determines if the bird is colliding with a box on the screen
-     * @param boxes all of the stationary boxes on the screen
+     * @param boxes all of the stationary boxes on the screen (as a bitboard)
+     * @param columnHeights the number of boxes stacked up in each column of the map
      * @param boxBounds the left and right most position thresholds of the boxes that the bird is in between
      * @return whether or not the bird is colliding with a box
      */
-    public boolean checkCollision(int[][] boxes, int[] boxBounds) {
-        double y = positionY+image.getHeight()-boxWidth + (stackNum*350);   // the bird's y position if it were treated as a box
-        int index = COLUMN_OF_BOXES - ((int) (rowHeight - y) / boxWidth);   // maps the y-position to an index that will be used to interface with the game's internal map of the boxes (2d array)
+    public boolean checkCollision(long boxes, int[] columnHeights, int[] boxBounds) {
+        long y = positionY+height-Fixed.position(boxWidth - stackNum*350);       // the bird's y position if it were treated as a box
+        int index = COLUMN_OF_BOXES - (Fixed.toInt(Fixed.of(rowHeight) - y) / boxWidth);   // maps the y-position to an index that will be used to interface with the game's internal map of the boxes (2d array)
         // bird doesnt go up issue here
-        if (index >= 0) {
-            int[] row = boxes[index];        // the row index in boxes (how high up)
+        if (index >= 0 && index < Bitboard.SIZE) {
+            int row = Bitboard.row(boxes, index);   // the row index in boxes (how high up), a bit per column
             // Now that u know where each box is occurring and its location
             // You must map the bird's x position to a corresponding index and set an independent ground level for each box
-            applyNormalForce(boxes);        // ensures the bird doesn't fall through the boxes by setting a position-y threshold
+            applyNormalForce(boxes, columnHeights);        // ensures the bird doesn't fall through the boxes by setting a position-y threshold
 
             // Collision detection between active boxes to the left and right of the bird
             int leftBoxBounds = boxBounds[0];
             int rightBoxBounds = boxBounds[1];
             if (leftBoxBounds != -1) {                   // -1 implies there is no box in motion to the left of the bird
-                if (positionX + 8 <= leftBoxBounds) {    // 8 is padding for the tail
-                    lowerBoundX = leftBoxBounds - 8;
+                if (positionX + Fixed.of(8) <= Fixed.of(leftBoxBounds)) {    // 8 is padding for the tail
+                    lowerBoundX = Fixed.of(leftBoxBounds - 8);
                 }
             }
             if (rightBoxBounds != -1) {                 // 9 is padding for the beak
-                if (positionX + image.getWidth() - 9 >= rightBoxBounds) {
-                    upperBoundX = rightBoxBounds - image.getWidth() + 9;
+                if (positionX + width - Fixed.of(9) >= Fixed.of(rightBoxBounds)) {
+                    upperBoundX = Fixed.of(rightBoxBounds + 9) - width;
                 }
             }
+            int lowestX = Fixed.of(-20);
+            int highestX = Fixed.of(400 + 20) - width;
+            int size = Fixed.of(boxWidth);
+            // Thresholds that were set by a stationary box that has gone (and not by a box in the air) are restored once the boxes
+            // before the gap it left have been looked at
+            int staleLower = leftBoxBounds == -1 ? emptyColumnAt(row, lowerBoundX + Fixed.of(8) - size) : NUM_OF_BOXES;
+            int staleUpper = rightBoxBounds == -1 ? emptyColumnAt(row, upperBoundX + width - Fixed.of(9)) : NUM_OF_BOXES;
             // Collision detection between stationary boxes to the left and right of the bird
-            for (int i = 0; i < NUM_OF_BOXES; i++) {
-                int box = row[i];
-                double boxPositionX = i * 50;
-
-                if (box == 1) {
-                    // Bird Right of Box
-                    if (positionX + image.getWidth() > boxPositionX + boxWidth) {
-                        if (positionX < boxPositionX + boxWidth) {
-                            lowerBoundX = boxPositionX + boxWidth - 8;                  // the x position should start from the body of the bird, not the tail
-                            return true;
-                        } else if (positionX > boxPositionX + boxWidth) {               // avoid jittery movement by doing > instead of >=
-                            lowerBoundX = -20;
-                        }
-                    } // Bird Left of Box
-                    else if (positionX + 9 < boxPositionX) {
-                        if (positionX + image.getWidth() > boxPositionX) {            // the width shouldn't include the beak of the bird, only the body (hence the +9)
-                            upperBoundX = boxPositionX - image.getWidth() + 9;        // because when update() is called, it takes min of posx and upperbound even though we are checking the rightmost corner of bird
-                            return true;
-                        } else if (positionX + image.getWidth() < boxPositionX) {
-                            upperBoundX = 400 - image.getWidth() + 20;
-                            break;
-                        }
-                    } else {    // restores the default thresholds
-                        lowerBoundX = -20;
-                        upperBoundX = 400 - image.getWidth() + 20;
+            // The boxes that end before the bird's tail have been passed (the bird can move back freely), and the first box that ends
+            // after it either is being collided with or settles the thresholds along with the box or two after it
+            int first = (int) Math.max(0, Math.floorDiv(positionX, size));          // the first column that ends past the bird's tail
+            int passed = row & ((1 << Math.min(first, NUM_OF_BOXES)) - 1);
+            if (first > 0 && positionX == first * size) passed &= ~(1 << first - 1);   // a box that ends right at the tail isn't passed
+            if (passed != 0) lowerBoundX = lowestX;
+            int end = NUM_OF_BOXES;         // the column at which the thresholds are settled, the stale ones before it are restored
+            int next = Bitboard.nextInRow(row, first);
+            if (next < NUM_OF_BOXES) {
+                int boxPositionX = next * size;
+                int boxRight = boxPositionX + size;
+                // Bird Right of Box
+                if (positionX + width > boxRight) {
+                    if (staleUpper < next) upperBoundX = highestX;
+                    lowerBoundX = boxRight - Fixed.of(8);                       // the x position should start from the body of the bird, not the tail
+                    return true;
+                } // Bird Left of Box
+                else if (positionX + Fixed.of(9) < boxPositionX) {
+                    if (positionX + width > boxPositionX) {                         // the width shouldn't include the beak of the bird, only the body (hence the +9)
+                        if (staleLower < next) lowerBoundX = lowestX;
+                        upperBoundX = boxPositionX - width + Fixed.of(9);           // because when update() is called, it takes min of posx and upperbound even though we are checking the rightmost corner of bird
+                        return true;
+                    } else if (positionX + width < boxPositionX) {
+                        upperBoundX = highestX;
+                        end = next;
+                    } else {        // the beak is touching the box, the next box is ahead of the bird
+                        end = Bitboard.nextInRow(row, next + 1);
+                        if (end < NUM_OF_BOXES) upperBoundX = highestX;
                     }
-                  // restores the default thresholds when there is no box colliding in this direction
-                } else if (box == 0) {
-                    if (lowerBoundX == boxPositionX + boxWidth - 8 && leftBoxBounds == -1)
-                        lowerBoundX = -20;
-                    if (upperBoundX == boxPositionX - image.getWidth() + 9 && rightBoxBounds == -1)
-                        upperBoundX = 400 - image.getWidth() + 20;
+                } else {    // restores the default thresholds, the next box (or the one after it if the beak is touching it) is ahead of the bird
+                    lowerBoundX = lowestX;
+                    upperBoundX = highestX;
+                    end = Bitboard.nextInRow(row, next + 1);
+                    if (end < NUM_OF_BOXES && end * size == positionX + width) end = Bitboard.nextInRow(row, end + 1);
                 }
             }
+            if (staleLower < end) lowerBoundX = lowestX;
+            if (staleUpper < end) upperBoundX = highestX;
         }
         return false;
     }
 
+    /**
+     * Returns the column that starts at an x-position when there is no box in it (a threshold that was set by a box there is stale),
+     * otherwise NUM_OF_BOXES
+     * @param row the stationary boxes in the bird's row
+     * @param x the x-position (in fixed-point)
+     */
+    private int emptyColumnAt(int row, int x) {
+        int size = Fixed.of(boxWidth);
+        int column = x / size;
+        if (x % size != 0 || column < 0 || column >= NUM_OF_BOXES || (row >>> column & 1) == 1) return NUM_OF_BOXES;
+        return column;
+    }
+
     /**
      * Converts the bird's x-position to an index to be used with game's internal map
-     * @param boxes the game's internal map of all of the boxes (hazards)
+     * @param boxes the game's internal map of all of the boxes (hazards) as a bitboard
      * @return the index that corresponds to the bird's x-position on the map
      */
-    public int getMappedX(int[][] boxes) {
+    public int getMappedX(long boxes) {
         int mappedIndex = 0;                                    // the index of the row corresponding to the bird's x position
-        double positionX = this.positionX+9;
-        for (int i = 0; i < boxes.length; i++) {
-            if (((i*50-22 <= positionX && ((i+1)*50)-25 > positionX))) {
+        long positionX = this.positionX+Fixed.of(9);
+        for (int i = 0; i < Bitboard.SIZE; i++) {
+            if (((Fixed.of(i*50-22) <= positionX && Fixed.of((i+1)*50-25) > positionX))) {
                 mappedIndex = i;
                 break;
-            } else if (((i+1)*50)-25 <= positionX && (i+1)*50 > positionX) {
+            } else if (Fixed.of((i+1)*50-25) <= positionX && Fixed.of((i+1)*50) > positionX) {
                 mappedIndex = i + 1;
                 break;
             }
@@ -242,16 +264,16 @@ public class Bird extends Sprite {
 
     /**
      * Converts the bird's y-position to an index to be used with game's internal map
-     * @param boxes the game's internal map of all of the boxes (hazards)
+     * @param boxes the game's internal map of all of the boxes (hazards) as a bitboard
      * @return the index that corresponds to the bird's y-position on the map
      */
-    public int getMappedY(int[][] boxes) {
-        int NUM_OF_BOXES = boxes[0].length;
+    public int getMappedY(long boxes) {
+        int NUM_OF_BOXES = Bitboard.SIZE;
         int boxWidth = 50;
         int rowHeight = 485;
-        double y = positionY+image.getHeight()-boxWidth;
-        int height = NUM_OF_BOXES - ((int) (rowHeight - y) / boxWidth) + 1;
-        return height > 7 ? 7 : height;
+        long y = positionY+height-Fixed.of(boxWidth);
+        int row = NUM_OF_BOXES - (Fixed.toInt(Fixed.of(rowHeight) - y) / boxWidth) + 1;
+        return row > 7 ? 7 : row;
 //        if (boxes[height][groundLevel] == 0) {  // when there is no box under the bird, it will move down
 //            move(Path.DOWN);
 //        } else {
@@ -270,34 +292,32 @@ public class Bird extends Sprite {
 
     /**
      * Ensure the bird doesn't fall through the boxes by updating the position-y threshold based on the bird's x and y position on the screen
-     * @param boxes the internal map of all of the stationary boxes on the screen
+     * @param boxes the internal map of all of the stationary boxes on the screen (as a bitboard)
+     * @param columnHeights the number of boxes stacked up in each column of the map
      */
-    private void applyNormalForce(int[][] boxes) {
+    private void applyNormalForce(long boxes, int[] columnHeights) {
         int groundLevel = getMappedX(boxes);
-        for (int i = 0; i < NUM_OF_BOXES; i++) {
-            if (boxes[i][groundLevel] == 1) {
-                upperBoundY = groundPosY+4 - (NUM_OF_BOXES - i) * boxWidth;
-                break;
-            } else {
-                upperBoundY = groundPosY+4;
-            }
-        }
+        upperBoundY = Fixed.position(groundPosY+4 - columnHeights[groundLevel] * boxWidth);     // the bird stands on the highest box under it
     }
 
     /**
-     * Adds the bird as a node to the scene graph to render the player
-     * @param children all of the nodes of the scene graph
+     * Records the bird into the snapshot that is drawn (the bird is removed from the screen as it is dead)
      */
-    public void render(ObservableList<Node> children) {
-        if (children.contains(bird)) children.remove(bird);
-        children.add(bird);
+    public void capture(Snapshot snapshot) {
+        snapshot.birdVisible = isAlive();
+        snapshot.birdPreviousX = getPreviousX();
+        snapshot.birdPreviousY = getPreviousY();
+        snapshot.birdX = getX();
+        snapshot.birdY = getY();
+        snapshot.birdTexture = facing;
+        snapshot.birdRotation = rotation;
     }
 
     public void slowMotion() {
         slowed = true;
     }
 
-    private double getAccel() {
+    private int getAccel() {
         if (slowed)
             return A/3;
         else
@@ -319,19 +339,46 @@ public class Bird extends Sprite {
 
     }
 
-    public ImageView getImageView() { return this.bird; }
+    @Override
+    public void save(ByteBuffer buffer) {
+        super.save(buffer);
+        buffer.putInt(GForce);
+        buffer.putInt(lowerBoundX).putLong(lowerBoundY).putInt(upperBoundX).putLong(upperBoundY);
+        buffer.put((byte) (slowed ? 1 : 0)).put((byte) (facing == Img.birdLeft ? 1 : 0)).putInt(rotation);
+        buffer.put((byte) (alive ? 1 : 0)).put((byte) (checkAgain ? 1 : 0));
+        buffer.putInt(rowHeight).putInt(groundPosY).putInt(stackNum);
+    }
+
+    @Override
+    public void restore(ByteBuffer buffer) {
+        super.restore(buffer);
+        GForce = buffer.getInt();
+        lowerBoundX = buffer.getInt();
+        lowerBoundY = buffer.getLong();
+        upperBoundX = buffer.getInt();
+        upperBoundY = buffer.getLong();
+        slowed = buffer.get() != 0;
+        facing = buffer.get() != 0 ? Img.birdLeft : Img.birdRight;
+        rotation = buffer.getInt();
+        alive = buffer.get() != 0;
+        checkAgain = buffer.get() != 0;
+        rowHeight = buffer.getInt();
+        groundPosY = buffer.getInt();
+        stackNum = buffer.getInt();
+    }
 
     /**
      * Resets all of the bird's variables to the default settings
      */
     public void newGame() {
         super.newGame();
-        lowerBoundX = -20;
-        lowerBoundY = 80;
-        upperBoundX = 400-image.getWidth()+20;   // 5 is padding for beak
-        upperBoundY = 439;
+        lowerBoundX = Fixed.of(-20);
+        lowerBoundY = Fixed.of(80);
+        upperBoundX = Fixed.of(400+20)-width;    // 5 is padding for beak
+        upperBoundY = Fixed.of(439);
         slowed = false;
-        ImageView bird;
+        facing = Img.birdRight;
+        rotation = 0;
         alive = true;
         checkAgain = true;
         groundPosY = 435;
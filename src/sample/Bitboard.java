@@ -0,0 +1,155 @@
+/**
+ * @File: Bitboard.java
+ * @Author: Abhi Gupta
+ * @Description: The internal map of the game is 8 rows of 8 spots, so it fits in the 64 bits of a long: the spot in row r (counted from
+ *               the top) and column c (counted from the left) is bit r * 8 + c. A map is copied by copying the long, and questions such
+ *               as whether a row is full or how high a column is stacked are answered with a few bit operations instead of loops over
+ *               a 2-D array. This class holds those operations, the map itself is just a long.
+ */
+
+package sample;
+
+public final class Bitboard {
+    public final static int SIZE = 8;                               // the number of rows and columns
+    public final static long ROW = 0xFFL;                           // every spot in the top row
+    public final static long COLUMN = 0x0101010101010101L;          // every spot in the left column
+    private final static long NOT_LEFT = ~COLUMN;                   // every spot but those in the left column
+    private final static long NOT_RIGHT = ~(COLUMN << (SIZE - 1));  // every spot but those in the right column
+
+    private Bitboard() {}
+
+    /**
+     * Returns whether or not the spot at the specified row and column (0-7) is occupied
+     */
+    public static boolean get(long board, int row, int column) {
+        return (board >>> (row * SIZE + column) & 1) != 0;
+    }
+
+    /**
+     * Returns the board with the spot at the specified row and column (0-7) occupied
+     */
+    public static long set(long board, int row, int column) {
+        return board | 1L << (row * SIZE + column);
+    }
+
+    /**
+     * Returns a board with every spot of the rows from one row to another occupied (the rows outside of the board are left out)
+     */
+    public static long rows(int from, int to) {
+        from = Math.max(from, 0);
+        to = Math.min(to, SIZE - 1);
+        if (from > to) return 0;
+        return -1L << from * SIZE & -1L >>> (SIZE - 1 - to) * SIZE;
+    }
+
+    /**
+     * Returns the spots of a row (0-7) as the low 8 bits, bit c being column c
+     */
+    public static int row(long board, int row) {
+        return (int) (board >>> (row * SIZE) & ROW);
+    }
+
+    public static boolean isRowFull(long board, int row) {
+        return row(board, row) == ROW;
+    }
+
+    /**
+     * Returns a board with the first spot (column 0) of every full row occupied
+     */
+    public static long fullRows(long board) {
+        board &= board >>> 1;       // each spot is left occupied if the 2, then 4, then 8 spots starting from it are
+        board &= board >>> 2;
+        board &= board >>> 4;
+        return board & COLUMN;
+    }
+
+    /**
+     * Returns the highest row (the lowest index) that is completely full, or SIZE if there is none
+     */
+    public static int highestFullRow(long board) {
+        long full = fullRows(board);
+        return full == 0 ? SIZE : Long.numberOfTrailingZeros(full) / SIZE;
+    }
+
+    /**
+     * Returns the first occupied column at or to the right of a column in a row (as returned by row), or SIZE if there is none
+     */
+    public static int nextInRow(int row, int column) {
+        if (column >= SIZE) return SIZE;
+        int spots = row & -1 << Math.max(column, 0);
+        return spots == 0 ? SIZE : Integer.numberOfTrailingZeros(spots);
+    }
+
+    /**
+     * Returns the last occupied column at or to the left of a column in a row (as returned by row), or -1 if there is none
+     */
+    public static int previousInRow(int row, int column) {
+        if (column < 0) return -1;
+        int spots = row & (2 << Math.min(column, SIZE - 1)) - 1;
+        return 31 - Integer.numberOfLeadingZeros(spots);
+    }
+
+    /**
+     * Returns the highest row (the lowest index) with an occupied spot in the specified column (0-7), or SIZE if the column is empty
+     */
+    public static int highestInColumn(long board, int column) {
+        long spots = board >>> column & COLUMN;
+        return spots == 0 ? SIZE : Long.numberOfTrailingZeros(spots) / SIZE;
+    }
+
+    /**
+     * Returns the number of spots a column (0-7) is stacked up from the bottom of the board
+     */
+    public static int columnHeight(long board, int column) {
+        return SIZE - highestInColumn(board, column);
+    }
+
+    /**
+     * Returns the board moved one column to the left, the spots in the left column fall off
+     */
+    public static long shiftLeft(long board) {
+        return (board & NOT_LEFT) >>> 1;
+    }
+
+    /**
+     * Returns the board moved one column to the right, the spots in the right column fall off
+     */
+    public static long shiftRight(long board) {
+        return (board & NOT_RIGHT) << 1;
+    }
+
+    /**
+     * Returns the board moved one row down, the spots in the bottom row fall off
+     */
+    public static long shiftDown(long board) {
+        return board << SIZE;
+    }
+
+    /**
+     * Returns the board moved one row up, the spots in the top row fall off
+     */
+    public static long shiftUp(long board) {
+        return board >>> SIZE;
+    }
+
+    /**
+     * Returns the spots that have an occupied spot directly to their left, right, above or below
+     */
+    public static long neighbours(long board) {
+        return shiftLeft(board) | shiftRight(board) | shiftUp(board) | shiftDown(board);
+    }
+
+    /**
+     * Returns the board as 8 lines of 0's and 1's (for debugging)
+     */
+    public static String toString(long board) {
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < SIZE; row++) {
+            for (int column = 0; column < SIZE; column++) {
+                text.append(get(board, row, column) ? "1 " : "0 ");
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+}
@@ -8,18 +8,19 @@
 
 package sample;
 
-import javafx.collections.ObservableList;
-import javafx.scene.Node;
-import javafx.scene.image.ImageView;
-import java.util.Random;
+import java.nio.ByteBuffer;
 
 public class Box extends Sprite {
-    private Random random = new Random();
+    private RandomStream layout;    // decides when the box is dropped
     public boolean readyToDrop;     // whether or not the box is ready to be dropped
-    private final double G = 0.0481;
-    private double STOP;            // the y-position threshold of where to stop the box
-    private ImageView box;
-    private boolean dropPositionAlreadySet = false;
+    private final int G = Fixed.of(0.0481);
+    private final static int TIME_SCALE = 100 * 60;     // the fall is scaled by the time played / 100, and there are 60 steps a second
+    private long STOP;              // the y-position threshold of where to stop the box (in fixed-point)
+    private int rotation = 0;       // the rotation of the box (boxes are randomly turned on their side)
+    private final static long NOT_DROPPED = -1;
+    private long dropStep = NOT_DROPPED;    // the step the box was dropped at (it is at positionY until then)
+    private long landingStep;               // the step the box reaches STOP at
+    private boolean settled = false;    // whether or not the box has been baked into the image of its row
 
     /**
      * Constructor
@@ -27,19 +28,20 @@ public class Box extends Sprite {
      * @param y the box's y-position (from where it is dropped)
      * @param stop the y-position threshold of where the box should stop
      * @param dark whether the box should have a light or dark shade
+     * @param layout the random stream that decides when boxes are dropped
+     * @param rotations the random stream that decides which boxes are turned on their side
      */
-    public Box(double x, double y, double stop, boolean dark) {
+    public Box(double x, double y, double stop, boolean dark, RandomStream layout, RandomStream rotations) {
         super();
-        STOP = stop;
+        STOP = Fixed.position(stop);
         setImage(dark ? Img.darkBox : Img.lightBox);
         setPosition(x, y);
-        box = new ImageView(image);
-        box.setX(positionX);
-        if (random.nextBoolean())   box.setRotate(90);
-        readyToDrop = random.nextBoolean();
+        this.layout = layout;
+        if (rotations.nextBoolean())   rotation = 90;
+        readyToDrop = layout.nextBoolean();
     }
 
-    public ImageView getImageView() { return box; }
+    public int getRotation() { return rotation; }
 
     public boolean isReady() {
         return readyToDrop;
@@ -47,11 +49,18 @@ public class Box extends Sprite {
 
     public void unprepare() { readyToDrop = false; }
 
+    public boolean isSettled() { return settled; }
+
+    /**
+     * Marks the box as baked into the image of its row, the box no longer has to be rendered on its own
+     */
+    public void settle() { settled = true; }
+
     /**
      * Prepares the box to be dropped (the box is ready to be dropped when the random value turns out to be true)
      */
     public void prepare() {
-        readyToDrop = random.nextBoolean();
+        readyToDrop = layout.nextBoolean();
     }
 
     public void prepare(boolean val) {
@@ -59,50 +68,111 @@ public class Box extends Sprite {
     }
 
     /**
-     * Drops the box by adding acceleration due to gravity and taking the amount of time the user has played the game into consideration
+     * Drops the box, from then on where it is at any step is known (see getY) along with the step at which it lands
+     * @param step the number of steps that have past since the user started playing the game
+     * @param y the y-position the box is dropped from
+     */
+    public void drop(long step, double y) {
+        setPosition(getX(), y);
+        dropStep = step;
+        landingStep = stepReaching(STOP);
+    }
+
+    /**
+     * Returns how far the box has fallen (in fixed-point) over the first n steps of its fall. On its i-th step the box falls by its
+     * velocity (i * G) scaled by the time played (dropStep + i - 1 steps), so the sum over the steps is a polynomial in n that is
+     * worked out in 64 bits and only then scaled down.
      */
-    public void drop(double time) {
-        addVelocity(0,G);
-        update(time);
+    private long fallen(long n) {
+        long k = dropStep - 1;
+        return G * (k * (n * (n + 1) / 2) + n * (n + 1) * (2 * n + 1) / 6) / TIME_SCALE;
     }
 
-    public void setDropPosition(double y) {
-        if (!dropPositionAlreadySet) {
-            setPosition(getX(), y);
-            dropPositionAlreadySet = true;
+    /**
+     * Returns the first step at which the box has fallen to (or past) a y-position, as if it didn't stop. The number of steps is
+     * estimated by solving the cubic of the fall with Newton's method and then settled with the exact sums, so it doesn't depend
+     * on how the estimate is rounded.
+     * @param y the y-position (in fixed-point)
+     */
+    public long stepReaching(long y) {
+        long distance = y - positionY;
+        if (distance <= 0) return dropStep;
+        double target = (double) distance * TIME_SCALE / G;         // n^3/3 + (k+1)n^2/2 + (k/2+1/6)n has to reach this
+        double k = dropStep - 1;
+        double n = Math.cbrt(3 * target) + 1;
+        if (k >= 0) n = Math.min(n, Math.sqrt(2 * target / (k + 1)) + 1);
+        for (int i = 0; i < 4 && n > 1; i++) {      // the cubic is convex, so n comes down to the root from above
+            double slope = n * n + (k + 1) * n + k / 2 + 1.0 / 6;
+            n -= (n * n * n / 3 + (k + 1) * n * n / 2 + (k / 2 + 1.0 / 6) * n - target) / slope;
         }
+        long steps = Math.max(1, (long) n);
+        while (fallen(steps) < distance) steps++;
+        while (steps > 1 && fallen(steps - 1) >= distance) steps--;
+        return dropStep + steps - 1;
     }
 
     /**
      * Returns the height at which the box will stop accelerating
      */
     public double getSTOP() {
-        return STOP;
+        return Fixed.toDouble(STOP);
+    }
+
+    @Override
+    public void save(ByteBuffer buffer) {
+        super.save(buffer);
+        buffer.putLong(STOP).putInt(rotation).putLong(dropStep).putLong(landingStep);
+        buffer.put((byte) ((readyToDrop ? 1 : 0) | (settled ? 4 : 0) | (image == Img.darkBox ? 8 : 0)));
+    }
+
+    @Override
+    public void restore(ByteBuffer buffer) {
+        super.restore(buffer);
+        STOP = buffer.getLong();
+        rotation = buffer.getInt();
+        dropStep = buffer.getLong();
+        landingStep = buffer.getLong();
+        int flags = buffer.get();
+        readyToDrop = (flags & 1) != 0;
+        settled = (flags & 4) != 0;
+        setImage((flags & 8) != 0 ? Img.darkBox : Img.lightBox);
     }
 
     /**
-     * Returns whether or not the box is in motion
+     * Returns whether or not the box has started falling (a box is only visible from then on)
      */
-    public boolean inMotion() {
-        return positionY != STOP;
+    public boolean isDropped() {
+        return dropStep != NOT_DROPPED;
     }
 
     /**
-     * Ensures the box is within the y-position threshold and updates its y-position
+     * Returns the step at which the box lands (only once it has been dropped)
      */
-    @Override
-    public void update(double time) {
-        super.update(time/100);
-        positionY = Math.min(positionY,STOP);
-        box.setY(positionY);
+    public long getLandingStep() { return landingStep; }
+
+    /**
+     * Returns the box's y-position at a step: where it is waiting until it is dropped, then on its way down and finally at its threshold
+     * @param step the number of steps that have past since the user started playing the game
+     */
+    public double getY(long step) {
+        if (!isDropped() || step < dropStep) return getY();
+        if (step >= landingStep) return getSTOP();
+        return Fixed.toDouble(positionY + fallen(step - dropStep + 1));
     }
 
     /**
-     * Renders the box on to the screen by adding it as a node to scene graph. Once an entire row of boxes has filled up the screen, they are only
-     * stored internally by javaFX's scene graph rather than being saved in a class.
+     * Records the box into the snapshot that is drawn while it is falling. Once the box has settled, it is drawn as part of the cached image of its row instead.
+     * @param column the column of the box
+     * @param previousStep the step the snapshot is interpolated from
+     * @param step the step the snapshot is taken at
      */
-    public void render(ObservableList<Node> children) {
-        if (children.contains(box)) children.remove(box);
-        children.add(box);
+    public void capture(Snapshot snapshot, int column, long previousStep, long step) {
+        snapshot.boxVisible[column] = isDropped() && !settled;
+        snapshot.boxPreviousX[column] = getX();
+        snapshot.boxPreviousY[column] = getY(previousStep);
+        snapshot.boxX[column] = getX();
+        snapshot.boxY[column] = getY(step);
+        snapshot.boxTexture[column] = image;
+        snapshot.boxRotation[column] = rotation;
     }
 }
@@ -1,30 +1,23 @@
 /**
  * @File: Button.java
  * @Author: Abhi Gupta
- * @Description: This class is nearly identical to the Sprite class but instead renders the object as a node on to the
- *               scene graph rather than the GraphicsContext and removes the sprite animation features as a button doesn't require it.
+ * @Description: This class is nearly identical to the Sprite class but is rendered on the HUD, so it stays in place while the screen
+ *               scrolls, and removes the sprite animation features as a button doesn't require it.
  */
 
 package sample;
 
-import javafx.collections.ObservableList;
-import javafx.scene.Node;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
-
 public class Button extends Sprite {
-    ImageView button;
+    protected int rotation = 0;     // the rotation of the button
 
-    public Button(Image icon, double x, double y) {
+    public Button(Texture icon, double x, double y) {
         super();
         setImage(icon);
-        button = new ImageView(image);
-        button.setX(x); button.setY(y);
+        setPosition(x, y);
     }
 
-    public void render(ObservableList<Node> children) {
-        if (children.contains(button)) children.remove(button);
-        children.add(button);
+    public void render(Renderer renderer) {
+        renderer.drawSprite(this, image, getX(), getY(), rotation, Layer.HUD);
     }
 
 }
@@ -0,0 +1,81 @@
+/**
+ * @File: CanvasRenderer.java
+ * @Author: Abhi Gupta
+ * @Description: This backend draws everything in immediate mode on to a single canvas that is cleared every frame. No nodes are
+ *               created at all, the layers of the world are simply drawn shifted down by the camera.
+ */
+
+package sample;
+
+import javafx.geometry.VPos;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+
+public class CanvasRenderer implements Renderer {
+    private Canvas canvas;
+    private GraphicsContext gc;
+    private double cameraY;     // the amount by which the layers of the world have scrolled down
+
+    /**
+     * Constructor
+     * @param width the width of the screen
+     * @param height the height of the screen
+     */
+    public CanvasRenderer(double width, double height) {
+        canvas = new Canvas(width, height);
+        gc = canvas.getGraphicsContext2D();
+        gc.setTextBaseline(VPos.TOP);
+    }
+
+    @Override
+    public Node getView() { return canvas; }
+
+    @Override
+    public void beginFrame(double cameraY) {
+        this.cameraY = cameraY;
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+    }
+
+    @Override
+    public void drawSprite(Object key, Texture texture, double x, double y, double rotate, Layer layer) {
+        y = toScreen(y, layer);
+        if (rotate == 0) {
+            texture.draw(gc, x, y);
+        } else {        // rotates about the center of the texture like an ImageView does
+            double halfWidth = texture.getWidth() / 2;
+            double halfHeight = texture.getHeight() / 2;
+            gc.save();
+            gc.translate(x + halfWidth, y + halfHeight);
+            gc.rotate(rotate);
+            texture.draw(gc, -halfWidth, -halfHeight);
+            gc.restore();
+        }
+    }
+
+    @Override
+    public void drawImage(Object key, Image image, int version, double x, double y, Layer layer) {
+        gc.drawImage(image, x, toScreen(y, layer));
+    }
+
+    @Override
+    public void drawText(Object key, String text, double x, double y, Font font, Paint fill, Layer layer) {
+        gc.setFont(font);
+        gc.setFill(fill);
+        gc.fillText(text, x, toScreen(y, layer));
+    }
+
+    @Override
+    public void endFrame() {
+    }
+
+    /**
+     * Converts a y-position of the specified layer to a y-position on the canvas
+     */
+    private double toScreen(double y, Layer layer) {
+        return layer.isHud() ? y : y + cameraY;
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * @File: Fixed.java
+ * @Author: Abhi Gupta
+ * @Description: Helpers for the 16.16 fixed-point numbers that the positions and velocities of the sprites are kept in. The physics of
+ *               the game only add, multiply and divide integers, so a step gives the same result on every JVM and at every JIT tier.
+ *               Doubles are only made at the edges, for drawing and for code that still works in pixels. An int only holds +/-32768
+ *               pixels, which is enough for sizes, speeds and places on the screen but not for positions in the world, which keep
+ *               going up with every stack. Those are kept in a long instead (see position).
+ */
+
+package sample;
+
+public final class Fixed {
+    public final static int SHIFT = 16;
+    public final static int ONE = 1 << SHIFT;     // one pixel
+    public final static int MAX_PIXELS = Integer.MAX_VALUE >> SHIFT;  // the largest whole number of pixels that an int holds
+
+    private Fixed() {}
+
+    /**
+     * Converts a whole number of pixels to fixed-point
+     * @throws ArithmeticException if the number of pixels doesn't fit in an int (use position for positions in the world)
+     */
+    public static int of(int pixels) {
+        if (pixels < -MAX_PIXELS - 1 || pixels > MAX_PIXELS) throw new ArithmeticException(pixels + " pixels don't fit in an int");
+        return pixels << SHIFT;
+    }
+
+    /**
+     * Converts a number of pixels to the nearest fixed-point value
+     * @throws ArithmeticException if the number of pixels doesn't fit in an int (use position for positions in the world)
+     */
+    public static int of(double pixels) {
+        long value = Math.round(pixels * ONE);
+        if ((int) value != value) throw new ArithmeticException(pixels + " pixels don't fit in an int");
+        return (int) value;
+    }
+
+    /**
+     * Converts a position in the world (in pixels) to the nearest fixed-point value, as a long so that it never runs out of range
+     */
+    public static long position(double pixels) {
+        return Math.round(pixels * ONE);
+    }
+
+    /**
+     * Converts a fixed-point value (an int or a position) back to pixels
+     */
+    public static double toDouble(long value) {
+        return value / (double) ONE;
+    }
+
+    /**
+     * Returns the whole number of pixels in a fixed-point value, rounded towards zero like a cast from double to int
+     */
+    public static int toInt(long value) {
+        return Math.toIntExact(value / ONE);
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * @File: FrameMeter.java
+ * @Author: Abhi Gupta
+ * @Description: This class measures how long each frame takes and periodically prints the average frame rate along with the slowest
+ *               frame, so that the rendering backends can be compared on the same hardware.
+ */
+
+package sample;
+
+public class FrameMeter {
+    private final String name;              // what is being measured
+    private final long REPORT_INTERVAL = 5_000_000_000L;     // 5 seconds
+    private long intervalStart = -1;
+    private long lastFrame;
+    private long worstFrame = 0;
+    private int frames = 0;
+
+    public FrameMeter(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records the start of a frame and prints a report once enough time has past
+     * @param now the current time in nanoseconds
+     */
+    public void frame(long now) {
+        if (intervalStart < 0) {
+            intervalStart = lastFrame = now;
+            return;
+        }
+        worstFrame = Math.max(worstFrame, now - lastFrame);
+        lastFrame = now;
+        frames++;
+        if (now - intervalStart >= REPORT_INTERVAL) {
+            System.out.printf("%s: %.1f fps, slowest frame %.1f ms%n", name, frames * 1e9 / (now - intervalStart), worstFrame / 1e6);
+            intervalStart = now;
+            worstFrame = 0;
+            frames = 0;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * @File: GameEvents.java
+ * @Author: Abhi Gupta
+ * @Description: This class carries the events of the game (a box landing, a row filling up, a new level, the bird being crushed and the
+ *               end of a game) from the world to whoever is interested in them, so that they don't have to keep recomputing the state
+ *               of the world to notice that something happened. The events are written into a preallocated ring by a single writer,
+ *               the simulation thread, and every subscriber reads them at its own pace through a cursor, on any thread, without locks.
+ *               A subscriber that falls a whole ring behind skips the events that are being overwritten.
+ */
+
+package sample;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class GameEvents {
+    // Event Types
+    public final static int BOX_LANDED = 0;         // a box came to rest -> a: its column, b: its row in the internal map, c: the number of
+                                                    //    boxes in its drop if it was the last of them to land (0 otherwise)
+    public final static int ROW_COMPLETED = 1;      // a row of the internal map filled up -> a: the row
+    public final static int LEVEL_UP = 2;           // the boxes reached the top of the screen -> a: the new level
+    public final static int BIRD_CRUSHED = 3;       // a box landed on the bird -> a: the column of the box, b: 1 if every box of the drop
+                                                    //    was already on the ground (0 otherwise)
+    public final static int GAME_OVER = 4;          // the game was won or lost -> a: 1 if it was won, b: the score
+    public final static int TYPES = 5;
+
+    private final int MASK;
+    private final int[] types;
+    private final long[] steps;
+    private final int[] as;
+    private final int[] bs;
+    private final int[] cs;
+    private long written = 0;                               // the number of events written (only used by the writer)
+    private final AtomicLong published = new AtomicLong();  // the number of events that can be read
+
+    /**
+     * A subscriber's position in the ring, along with the last event it read
+     */
+    public static class Cursor {
+        private long next;      // the number of the next event to read
+        public long missed;     // the number of events that were overwritten before they could be read
+        public int type;
+        public long step;       // the step the event happened at
+        public int a;
+        public int b;
+        public int c;
+    }
+
+    /**
+     * Constructor
+     * @param capacity the number of events kept in the ring (rounded up to a power of two)
+     */
+    public GameEvents(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        MASK = size - 1;
+        types = new int[size];
+        steps = new long[size];
+        as = new int[size];
+        bs = new int[size];
+        cs = new int[size];
+    }
+
+    /**
+     * Adds an event to the ring (only ever called by the simulation thread)
+     */
+    public void publish(int type, long step, int a, int b) {
+        publish(type, step, a, b, 0);
+    }
+
+    /**
+     * Adds an event with three values to the ring (only ever called by the simulation thread)
+     */
+    public void publish(int type, long step, int a, int b, int c) {
+        int i = (int) written & MASK;
+        types[i] = type;
+        steps[i] = step;
+        as[i] = a;
+        bs[i] = b;
+        cs[i] = c;
+        published.lazySet(++written);     // the event is written before it is made visible to the readers
+        VarHandle.storeStoreFence();      // and the count is visible before the next event overwrites an old one
+    }
+
+    /**
+     * Returns a cursor that reads the events published from now on
+     */
+    public Cursor subscribe() {
+        Cursor cursor = new Cursor();
+        cursor.next = published.get();
+        return cursor;
+    }
+
+    /**
+     * Reads the next event into the cursor
+     * @return whether or not there was an event to read
+     */
+    public boolean poll(Cursor cursor) {
+        while (true) {
+            long available = published.get();
+            if (cursor.next >= available) return false;
+            if (available - cursor.next > MASK) {       // the writer has caught up with the cursor (the oldest slot may be being written)
+                cursor.missed += available - cursor.next - MASK;
+                cursor.next = available - MASK;
+            }
+            int i = (int) cursor.next & MASK;
+            cursor.type = types[i];
+            cursor.step = steps[i];
+            cursor.a = as[i];
+            cursor.b = bs[i];
+            cursor.c = cs[i];
+            VarHandle.acquireFence();
+            if (published.get() - cursor.next <= MASK) {     // the event wasn't overwritten while it was being read
+                cursor.next++;
+                return true;
+            }
+        }
+    }
+}
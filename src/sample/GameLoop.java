@@ -0,0 +1,82 @@
+/**
+ * @File: GameLoop.java
+ * @Author: Abhi Gupta
+ * @Description: This class runs the simulation on its own thread, apart from the JavaFX Application Thread, so that layout or CSS work
+ *               never holds up the game. The game always advances in fixed steps of simulation time no matter how often the screen
+ *               refreshes, so it plays exactly the same at 60, 120 or 144 Hz and when frames are dropped. After the steps that were due
+ *               have been taken, the state of the game is published and the thread sleeps until the next step.
+ */
+
+package sample;
+
+import java.util.concurrent.locks.LockSupport;
+
+public abstract class GameLoop implements Runnable {
+    public final static long STEP_NANOS = (long) (GameWorld.TIME_STEP * 1_000_000_000L);
+    private final static int MAX_STEPS_PER_WAKE = 5;                    // the most steps taken to catch up at once
+    private final static long MAX_PAUSE_NANOS = 250_000_000L;           // longer pauses are not caught up on
+    private volatile boolean running = false;
+    private volatile double speed = 1;      // how many times faster than real time the game is played (replays can be sped up)
+    private Thread thread;
+
+    /**
+     * Starts the simulation thread
+     */
+    public void start() {
+        running = true;
+        thread = new Thread(this, "simulation");
+        thread.setDaemon(true);     // the thread doesn't keep the application alive once the window is closed
+        thread.start();
+    }
+
+    /**
+     * Stops the simulation thread and waits for the step it is taking to finish
+     */
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join();
+    }
+
+    /**
+     * Sets how many times faster than real time the game is played
+     * @throws IllegalArgumentException if the speed isn't greater than 0 (the game would never take a step)
+     */
+    public void setSpeed(double speed) {
+        if (!(speed > 0) || Double.isInfinite(speed)) throw new IllegalArgumentException("Invalid speed: " + speed + " (expected a number greater than 0)");
+        this.speed = speed;
+    }
+
+    @Override
+    public void run() {
+        long previous = System.nanoTime();
+        long accumulator = 0;       // the amount of time that hasn't been simulated yet
+        while (running) {
+            long now = System.nanoTime();
+            double speed = this.speed;
+            int maxSteps = (int) Math.ceil(MAX_STEPS_PER_WAKE * speed);
+            accumulator += (long) (Math.min(now - previous, MAX_PAUSE_NANOS) * speed);
+            previous = now;
+
+            int steps = 0;
+            while (accumulator >= STEP_NANOS && steps < maxSteps) {
+                tick();
+                accumulator -= STEP_NANOS;
+                steps++;
+            }
+            if (steps == maxSteps) accumulator = Math.min(accumulator, STEP_NANOS - 1);     // gives up on the rest of the backlog
+            if (steps > 0) publish();
+            LockSupport.parkNanos((long) ((STEP_NANOS - accumulator) / speed));
+        }
+    }
+
+    /**
+     * Advances the game by a single step
+     */
+    protected abstract void tick();
+
+    /**
+     * Publishes the state of the game after the last step
+     */
+    protected abstract void publish();
+}
@@ -0,0 +1,340 @@
+/**
+ * @File: GameWorld.java
+ * @Author: Abhi Gupta
+ * @Description: This class is the model of the game. It holds the state of a game (the boxes, the bird, the caution signs, the score
+ *               and the scrolling of the screen) and advances it one fixed step at a time from the keys that are held down. It doesn't
+ *               need a window, a stage or the JavaFX toolkit, so it can run on the simulation thread behind the JavaFX view, or on its
+ *               own as fast as the processor allows (see Headless). The JavaFX layer only draws the snapshots it is copied into.
+ */
+
+package sample;
+
+import java.nio.ByteBuffer;
+
+public class GameWorld {
+    public final static double TIME_STEP = 1.0 / 60;    // the amount of simulation time in a single step (seconds)
+    public final static int SAVE_CAPACITY = 64 * 1024;  // a buffer of this size can always hold a saved world
+    private final static int SAVE_MAGIC = 0x52425257;   // "RBRW"
+    private final static int SAVE_VERSION = 8;
+    private final static int EVENT_CAPACITY = 1024;      // the number of events kept for the subscribers that are behind
+    private final static int MENU_WAIT = 61;            // the number of steps after a game ends before the user can start another one
+    private final double HEIGHT;            // the height of the screen
+    private long seed;                      // the same seed and the same keys always play the same game
+
+    // Game Objects
+    private TimerWheel timers = new TimerWheel();   // all of the timers of the game, advanced once per step
+    private GameEvents events = new GameEvents(EVENT_CAPACITY);     // what happens in the game, for anyone interested in it
+    private GameEvents.Cursor cursor = events.subscribe();          // the events that the world reacts to itself
+    private Transporter fedEx;
+    private TrafficController trafficGuard;
+    private ScoreKeeper referee;
+    private Bird player;
+
+    private long ticks = 0;                         // the number of steps taken since the world was created
+    private double time = 0;                        // the amount of simulation time that has progressed since the world was created
+    private double screenY = 0;                     // the offset by which the screen's y position has increased
+    private double previousScreenY = 0;             // the offset at the end of the previous step (to interpolate the camera between steps)
+    private int goal = 0;                           // the goal (amount) that the offset needs to reach
+    private int maxHeightBeforeTransition = 7;      // the height (units is boxes (3 box high)) of the boxes before the screen shifts down rapidly
+    private boolean transition = false;             // whether or not the screen is in transition
+    private boolean reset = false;                  // whether or not a new game has to be started
+    private boolean win = true;                     // so that the game starts at the menu
+    private boolean lost = false;
+    private boolean menuReady = false;              // whether or not the user can play again or start a new game
+    private final int menuTimer;                    // sets menuReady once the menu has been displayed for long enough
+    private final int gameOverTimer;                // ends the game once the bird is dead and the boxes have stopped
+    private boolean gameStarted = false;            // whether or not a game has been started (only the menu is displayed before then)
+    private int keys = 0;                           // the keys held down during the current step
+
+    /**
+     * Constructor
+     * @param width the width of the screen
+     * @param height the height of the screen
+     * @param seed the seed of the session
+     */
+    public GameWorld(double width, double height, long seed) {
+        HEIGHT = height;
+        this.seed = seed;
+
+        // Boxes
+        fedEx = new Transporter(width, seed, events);
+
+        // Traffic Signs Controller
+        trafficGuard = new TrafficController(fedEx.getNumOfBoxes(), timers);
+
+        // Score Keeper
+        referee = new ScoreKeeper(timers);
+
+        // Players
+        player = new Bird(Img.birdRight, fedEx.getInfo());
+        player.setPosition(300,439);
+
+        // Menu
+        menuTimer = timers.register(() -> menuReady = true);
+        gameOverTimer = timers.register(() -> lost = true);
+        timers.schedule(menuTimer, MENU_WAIT);
+    }
+
+    /**
+     * Advances the game by a single step of TIME_STEP seconds
+     * @param keys the keys that are being held down (see Input)
+     */
+    public void tick(int keys) {
+        long step = ticks++;
+        double t = time = step * TIME_STEP;
+        this.keys = keys;
+        savePositions();
+
+        // when the user hasn't win or lost the game -> playing the game
+        if (!win && !lost) {
+            // All of the settled boxes currently on the screen
+            long hazards = fedEx.getHazards();
+
+            // Moves the screen down with growing progression
+            screenY += 0.122 * (t / 100);
+            if (reset) {
+                transition = true;
+                goal = (int) (screenY + 100 + (50 * (t / 100)));
+            }
+            if (transition) {
+                if ((int) screenY != goal) {
+                    screenY += 0.5;
+                } else {
+                    transition = false;
+                }
+            }
+            fedEx.cullBelow(HEIGHT - screenY);      // boxes that have scrolled off the screen are discarded
+
+            // Moves the player
+            if (player.isAlive()) {
+                // Collision (for stationary boxes)
+                boolean collide = player.checkCollision(hazards, fedEx.getColumnHeights(), fedEx.getActiveBoxBounds(player.getMappedX(hazards), player.getMappedY(hazards)));
+                // Bird Movement
+                if (Input.left(keys) && !collide) {
+                    player.move(Path.LEFT);
+                    player.rotate(0);
+                } else if (Input.left(keys) && collide) {
+                    player.deactivateG();
+                    player.move(Path.UP);
+                    player.move(Path.LEFT);
+                    player.rotate(90);
+                }
+                if (Input.right(keys) && !collide) {
+                    player.move(Path.RIGHT);
+                    player.rotate(0);
+                } else if (Input.right(keys) && collide) {
+                    player.deactivateG();
+                    player.move(Path.UP);
+                    player.move(Path.RIGHT);
+                    player.rotate(-90);
+                }
+                if (collide && keys == 0 || !collide) {
+                    player.activateG();
+                }
+                if (keys == 0)
+                    player.move(Path.STILL);
+                player.move(Path.DOWN);
+            }
+            player.update();    // updates the bird's position with regards to acceleration and velocity
+
+            fedEx.deploy(step, player, screenY);
+
+            // Reacts to what happened while the boxes were being dropped
+            boolean landed = false;         // whether or not the last box of the drop landed
+            int amountOnGround = 0;
+            boolean stopped = false;        // whether or not every box of the drop is on the ground (when the bird was crushed)
+            boolean topFull = false;        // whether or not the boxes have stacked up to the top of the screen
+            while (events.poll(cursor)) {
+                switch (cursor.type) {
+                    case GameEvents.BIRD_CRUSHED:
+                        player.updateLife(false);     // the bird is removed from the screen
+                        stopped = cursor.b != 0;
+                        break;
+                    case GameEvents.BOX_LANDED:
+                        if (cursor.c > 0) {
+                            landed = true;
+                            amountOnGround = cursor.c;
+                        }
+                        break;
+                    case GameEvents.ROW_COMPLETED:
+                        topFull |= cursor.a == Transporter.TOP_ROW;
+                        break;
+                }
+            }
+
+            // Check health of player (when the bird is dead, it waits for all the boxes to stop and the game ends during the next step,
+            // 2 steps from now as the timers of this step are yet to run)
+            if ((landed || stopped) && !player.isAlive()) timers.schedule(gameOverTimer, 2);
+
+            // Display Caution Signs (a while after the boxes have landed)
+            if (landed) trafficGuard.holdWarnings();
+            timers.advance();   // runs the timers that expire at this step (the caution signs and the score being rolled up)
+            if (landed) referee.upScore(amountOnGround);
+
+            // Check if boxes have stacked up to a height of 7 boxes -> new level
+            if (topFull) {
+                fedEx.nextStack();
+                player.upGroundPosY(50 * 7);
+                referee.upLevel();
+                events.publish(GameEvents.LEVEL_UP, step, referee.getLevel(), 0);
+                win = referee.isWinner();
+                reset = true;
+            } else {
+                reset = false;
+            }
+
+            // Stop the timers of the game once it has been won or lost
+            if (win || lost) {
+                timers.cancel(gameOverTimer);
+                trafficGuard.stop();
+                referee.stop();
+                timers.schedule(menuTimer, MENU_WAIT);
+                events.publish(GameEvents.GAME_OVER, step, win ? 1 : 0, referee.getScore());
+            }
+
+        // Display Menu after Winning or Losing
+        } else {
+            timers.advance();   // runs the timers that expire at this step (the wait before the user can play again)
+
+            // Reset Game to Play Again - hit the arrow keys
+            if (menuReady && (keys & (Input.RIGHT | Input.LEFT)) != 0) {
+                // Reset all internal variables and discard previous data
+                // Boxes
+                fedEx.newGame();
+                // Traffic Signs Controller
+                trafficGuard.newGame();
+                // Score Keeper
+                referee.newGame();
+                // Players
+                player.newGame();
+                player.setPosition(300,439);
+                screenY = previousScreenY = 0;
+                menuReady = false;
+                gameStarted = true;
+                win = lost = false;
+            }
+        }
+    }
+
+    /**
+     * Remembers the position of everything that moves at the start of a step, so that they can be interpolated when they are drawn
+     */
+    public void savePositions() {
+        previousScreenY = screenY;
+        player.savePosition();
+        fedEx.savePositions();
+    }
+
+    public long getTicks() { return ticks; }
+
+    public long getSeed() { return seed; }
+
+    /**
+     * Returns the events of the game, which can be subscribed to from any thread
+     */
+    public GameEvents getEvents() { return events; }
+
+    /**
+     * Writes the complete state of the world into a buffer (starting at its position), without allocating anything. The world can be
+     * put back into exactly this state with restore, in this process or another one.
+     * @param buffer the buffer the world is written into, SAVE_CAPACITY bytes are always enough
+     */
+    public void save(ByteBuffer buffer) {
+        buffer.putInt(SAVE_MAGIC).putInt(SAVE_VERSION).putLong(seed).putLong(ticks).putDouble(time);
+        buffer.putDouble(screenY).putDouble(previousScreenY).putInt(goal).putInt(keys);
+        buffer.put((byte) ((transition ? 1 : 0) | (reset ? 2 : 0) | (win ? 4 : 0) | (lost ? 8 : 0) | (gameStarted ? 16 : 0) | (menuReady ? 32 : 0)));
+        timers.save(buffer);
+        fedEx.save(buffer);
+        trafficGuard.save(buffer);
+        referee.save(buffer);
+        player.save(buffer);
+    }
+
+    /**
+     * Returns the seed of a world saved into a buffer (the position of the buffer is left where it was)
+     */
+    public static long readSeed(ByteBuffer buffer) {
+        return buffer.getLong(buffer.position() + 8);
+    }
+
+    /**
+     * Puts the world back into a state written by save (reading from the position of the buffer), reusing the objects of the world
+     * @param buffer the buffer the world was saved into
+     * @throws IllegalArgumentException if the buffer doesn't hold a saved world
+     */
+    public void restore(ByteBuffer buffer) {
+        if (buffer.remaining() < 8 || buffer.getInt() != SAVE_MAGIC)
+            throw new IllegalArgumentException("The buffer doesn't hold a saved world");
+        int version = buffer.getInt();
+        if (version != SAVE_VERSION)
+            throw new IllegalArgumentException("The world was saved with version " + version + " (expected " + SAVE_VERSION + ")");
+        seed = buffer.getLong();
+        ticks = buffer.getLong();
+        time = buffer.getDouble();
+        screenY = buffer.getDouble();
+        previousScreenY = buffer.getDouble();
+        goal = buffer.getInt();
+        keys = buffer.getInt();
+        int flags = buffer.get();
+        transition = (flags & 1) != 0;
+        reset = (flags & 2) != 0;
+        win = (flags & 4) != 0;
+        lost = (flags & 8) != 0;
+        gameStarted = (flags & 16) != 0;
+        menuReady = (flags & 32) != 0;
+        timers.restore(buffer);
+        fedEx.restore(buffer);
+        trafficGuard.restore(buffer);
+        referee.restore(buffer);
+        player.restore(buffer);
+    }
+
+    public int getScore() { return referee.getScore(); }
+
+    public int getLevel() { return referee.getLevel(); }
+
+    /**
+     * Returns a checksum of the state of the world, two worlds that were given the same seed and the same keys have the same checksum
+     */
+    public long checksum() {
+        long hash = ticks;
+        hash = 31 * hash + Double.doubleToLongBits(screenY);
+        hash = 31 * hash + Double.doubleToLongBits(player.getX());
+        hash = 31 * hash + Double.doubleToLongBits(player.getY());
+        hash = 31 * hash + (player.isAlive() ? 1 : 0);
+        hash = 31 * hash + referee.getScore();
+        hash = 31 * hash + referee.getLevel();
+        hash = 31 * hash + (win ? 1 : 0) + (lost ? 2 : 0);
+        return 31 * hash + fedEx.checksum();
+    }
+
+    /**
+     * Returns whether or not a game is being played (the menu is displayed otherwise)
+     */
+    public boolean isPlaying() {
+        return gameStarted && !win && !lost;
+    }
+
+    /**
+     * Returns whether or not the last game that was played has been won
+     */
+    public boolean hasWon() {
+        return gameStarted && win;
+    }
+
+    /**
+     * Copies everything that is drawn into a snapshot
+     */
+    public void capture(Snapshot snapshot) {
+        snapshot.time = time;
+        snapshot.previousCameraY = previousScreenY;
+        snapshot.cameraY = screenY;
+        snapshot.keys = keys;
+        snapshot.gameStarted = gameStarted;
+        snapshot.menu = win || lost;
+        player.capture(snapshot);
+        fedEx.capture(snapshot);
+        referee.capture(snapshot);
+        trafficGuard.capture(snapshot, fedEx.getNextBoxes(), fedEx.getColumnHeights());
+    }
+}
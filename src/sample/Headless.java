@@ -0,0 +1,88 @@
+/**
+ * @File: Headless.java
+ * @Author: Abhi Gupta
+ * @Description: This class plays the game without a window, stepping the world as fast as it can with a simple bot at the keyboard. It
+ *               is used for load tests and to try out bots, and reports how many steps were simulated per second along with the scores.
+ *               The bot draws its moves from the same seed as the game, so a run can be repeated exactly by passing the seed it printed,
+ *               and the run can be recorded. A recorded session (from here or from the game) can be played back as fast as possible too.
+ *               Run it with: java -cp <classes> sample.Headless [games] [seed] [record file]
+ *                        or: java -cp <classes> sample.Headless replay <file>
+ */
+
+package sample;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Random;
+
+public class Headless {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 2 && args[0].equals("replay")) {
+            replay(args[1]);
+            return;
+        }
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : RandomStream.newSeed();
+        System.out.println("Seed: " + seed);
+        GameWorld world = new GameWorld(400, 650, seed);
+        ReplayRecorder recorder = args.length > 2 ? new ReplayRecorder(Paths.get(args[2]), seed) : null;
+        Random random = new Random(seed);
+        Telemetry telemetry = new Telemetry(world.getEvents());
+
+        long start = System.nanoTime();
+        int wins = 0;
+        long totalScore = 0;
+        int bestScore = 0;
+        for (int game = 0; game < games; game++) {
+            while (!world.isPlaying()) step(world, recorder, telemetry, Input.RIGHT);     // starts a new game from the menu
+
+            int keys = 0;
+            while (world.isPlaying()) {
+                if (random.nextInt(30) == 0) {          // the bot changes direction every half a second or so
+                    int choice = random.nextInt(3);
+                    keys = choice == 0 ? Input.LEFT : choice == 1 ? Input.RIGHT : 0;
+                }
+                step(world, recorder, telemetry, keys);
+            }
+            if (world.hasWon()) wins++;
+            totalScore += world.getScore();
+            bestScore = Math.max(bestScore, world.getScore());
+        }
+        if (recorder != null) recorder.close();
+        report(world.getTicks(), System.nanoTime() - start);
+        System.out.printf("%d games, wins: %d, average score: %.1f, best score: %d%n", games, wins, (double) totalScore / games, bestScore);
+        System.out.println("Events: " + telemetry);
+        System.out.printf("Checksum: %016x%n", world.checksum());
+    }
+
+    /**
+     * Plays back a recorded session as fast as possible
+     * @param path the recorded session
+     */
+    private static void replay(String path) throws IOException {
+        ReplayPlayer replay = new ReplayPlayer(Paths.get(path));
+        System.out.println("Seed: " + replay.getSeed());
+        GameWorld world = new GameWorld(400, 650, replay.getSeed());
+        Telemetry telemetry = new Telemetry(world.getEvents());
+        long start = System.nanoTime();
+        while (replay.tick(world)) telemetry.update();
+        report(world.getTicks(), System.nanoTime() - start);
+        System.out.printf("Score: %d, level: %d%n", world.getScore(), world.getLevel());
+        System.out.println("Events: " + telemetry);
+        System.out.printf("Checksum: %016x%n", world.checksum());
+        if (replay.getDivergedAt() >= 0) System.exit(1);
+    }
+
+    private static void step(GameWorld world, ReplayRecorder recorder, Telemetry telemetry, int keys) {
+        if (recorder != null) recorder.tick(world, keys);
+        else world.tick(keys);
+        telemetry.update();
+    }
+
+    private static void report(long ticks, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.printf("%d steps in %.2f s (%.0f steps/s, %.0fx real time)%n",
+                ticks, seconds, ticks / seconds, ticks * GameWorld.TIME_STEP / seconds);
+    }
+}
@@ -1,24 +1,98 @@
 /**
  * @File: Img.java
  * @Author: Abhi Gupta
- * @Description: This class contains all of the images and sprites stored on a web server used in the foreground of the game. These images
- *               were custom-made as they original implementation of this game was for the iOS platform.
+ * @Description: This class contains all of the images and sprites used in the foreground of the game. These images were custom-made as
+ *               the original implementation of this game was for the iOS platform. They are bundled with the game as pages of a texture
+ *               atlas (atlas-<page>.png) along with an index of where each image is located (atlas.txt), all of which are generated from
+ *               the images in /imgs by tools/AtlasPacker.java. Only the index is read here, the pages themselves are decoded in the
+ *               background by the AssetLoader.
  */
 
 package sample;
 
 import javafx.scene.image.Image;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
 public class Img {
-    public final static Image smallClouds = new Image("https://firebasestorage.googleapis.com/v0/b/run-bird-run.appspot.com/o/SmallClouds.png?alt=media&token=d72a7542-ab9b-4329-8aeb-b862e3db8def");
-    public final static Image bigClouds = new Image("https://firebasestorage.googleapis.com/v0/b/run-bird-run.appspot.com/o/BigClouds.png?alt=media&token=45ab635b-88eb-4213-b735-8fec21cc1b73");
-    public final static Image birdRight = new Image("https://firebasestorage.googleapis.com/v0/b/run-bird-run.appspot.com/o/Bird.png?alt=media&token=85f95713-aba1-4e2f-8fa1-3fb14e6fcd39");
-    public final static Image birdLeft = new Image("https://firebasestorage.googleapis.com/v0/b/run-bird-run.appspot.com/o/Bird%20Left.png?alt=media&token=4d6e2740-856f-4c60-8313-cd8caa509d8d");
-    public final static Image lightBox = new Image("https://firebasestorage.googleapis.com/v0/b/run-bird-run.appspot.com/o/BoxFinal.png?alt=media&token=b92d57bd-3e0d-4a22-ba3e-f09b0047aa80");
-    public final static Image darkBox = new Image("https://firebasestorage.googleapis.com/v0/b/run-bird-run.appspot.com/o/BoxDarkFinal.png?alt=media&token=49979465-d7e2-4ea6-a969-efb152e95157");
-    public final static Image warningSignOn = new Image("https://firebasestorage.googleapis.com/v0/b/run-bird-run.appspot.com/o/WarningSignOn.png?alt=media&token=6ce53f72-eafb-41fd-9f57-f025821b482e");
-    public final static Image warningSignOff = new Image("https://firebasestorage.googleapis.com/v0/b/run-bird-run.appspot.com/o/WarningSignOff.png?alt=media&token=4e318680-c8c5-4d31-82b8-24a62243f409");
-    public final static Image keyRightUp = new Image("https://firebasestorage.googleapis.com/v0/b/run-bird-run.appspot.com/o/RightKeyUp.png?alt=media&token=08133ea4-15bd-47ce-b184-973951a993ce");
-    public final static Image keyRightDown = new Image("https://firebasestorage.googleapis.com/v0/b/run-bird-run.appspot.com/o/RightKeyDown.png?alt=media&token=d4525c4c-febd-487f-a0ac-13149157f180");
-    public final static Image menu = new Image("https://firebasestorage.googleapis.com/v0/b/run-bird-run.appspot.com/o/Menu.png?alt=media&token=f281c256-8c83-4288-b2ba-816daaa9f5aa");
+    public final static String[] REQUIRED_PAGES = {"sprites", "menu"};     // the pages needed before the menu can be shown
+    public final static String[] DEFERRED_PAGES = {"scenery"};             // the pages loaded once the game is running
+
+    private final static HashMap<String, Texture> index = readIndex("atlas.txt");
+
+    public final static Texture smallClouds = get("smallClouds");
+    public final static Texture bigClouds = get("bigClouds");
+    public final static Texture birdRight = get("birdRight");
+    public final static Texture birdLeft = get("birdLeft");
+    public final static Texture lightBox = get("lightBox");
+    public final static Texture darkBox = get("darkBox");
+    public final static Texture warningSignOn = get("warningSignOn");
+    public final static Texture warningSignOff = get("warningSignOff");
+    public final static Texture keyRightUp = get("keyRightUp");
+    public final static Texture keyRightDown = get("keyRightDown");
+    public final static Texture menu = get("menu");
+
+    /**
+     * Decodes a page of the atlas (this can be called from any thread)
+     * @param page the name of the page
+     * @return the image of the page
+     */
+    public static Image decodePage(String page) {
+        try (InputStream stream = open("atlas-" + page + ".png")) {
+            Image image = new Image(stream);
+            if (image.isError()) throw new IllegalStateException("Could not decode atlas page " + page, image.getException());
+            return image;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Hands the decoded image of a page to all of the textures located in that page
+     */
+    public static void install(String page, Image atlas) {
+        for (Texture texture : index.values()) {
+            if (texture.getPage().equals(page)) texture.setAtlas(atlas);
+        }
+    }
+
+    /**
+     * Opens a file bundled with the game on the classpath
+     */
+    private static InputStream open(String name) {
+        InputStream stream = Img.class.getResourceAsStream(name);
+        if (stream == null) throw new IllegalStateException("Missing bundled asset: " + name);
+        return stream;
+    }
+
+    /**
+     * Reads the index of the atlas, where each line contains the name of an image followed by its page, x, y, width and height
+     */
+    private static HashMap<String, Texture> readIndex(String name) {
+        HashMap<String, Texture> textures = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(open(name), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] fields = line.trim().split("\\s+");
+                textures.put(fields[0], new Texture(fields[1], Integer.parseInt(fields[2]), Integer.parseInt(fields[3]),
+                        Integer.parseInt(fields[4]), Integer.parseInt(fields[5])));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return textures;
+    }
+
+    private static Texture get(String name) {
+        Texture texture = index.get(name);
+        if (texture == null) throw new IllegalStateException("The atlas has no image named " + name);
+        return texture;
+    }
 }
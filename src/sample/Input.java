@@ -0,0 +1,77 @@
+/**
+ * @File: Input.java
+ * @Author: Abhi Gupta
+ * @Description: This class keeps track of the keys being held down. Key events arrive on the JavaFX Application Thread and are reduced
+ *               to a bitmask of the keys the game cares about, which the simulation thread reads at the start of every step.
+ */
+
+package sample;
+
+import java.util.ArrayList;
+
+public class Input {
+    public final static int LEFT = 1;
+    public final static int RIGHT = 2;
+    public final static int A = 4;
+    public final static int D = 8;
+    public final static int OTHER = 16;         // any other key (the bird only stands still when no key at all is held down)
+    public final static int REWIND = 32;        // rolls the game back while it is held down
+    private ArrayList<String> pressed = new ArrayList<String>();     // all of the keys being held down (only used on the JavaFX thread)
+    private volatile int keys = 0;
+
+    /**
+     * Records a key that has been pressed
+     * @param code the name of the key
+     */
+    public void press(String code) {
+        if (!pressed.contains(code)) {
+            pressed.add(code);
+            keys = toMask();
+        }
+    }
+
+    /**
+     * Records a key that has been released
+     * @param code the name of the key
+     */
+    public void release(String code) {
+        pressed.remove(code);
+        keys = toMask();
+    }
+
+    /**
+     * Returns the keys that are being held down as a bitmask (can be called from any thread)
+     */
+    public int get() {
+        return keys;
+    }
+
+    /**
+     * Returns whether or not the bird is being moved left by the specified keys
+     */
+    public static boolean left(int keys) {
+        return (keys & (LEFT | A)) != 0;
+    }
+
+    /**
+     * Returns whether or not the bird is being moved right by the specified keys
+     */
+    public static boolean right(int keys) {
+        return (keys & (RIGHT | D)) != 0;
+    }
+
+    private int toMask() {
+        int mask = 0;
+        for (String code : pressed) {
+            switch (code) {
+                case "LEFT":  mask |= LEFT;  break;
+                case "RIGHT": mask |= RIGHT; break;
+                case "A":     mask |= A;     break;
+                case "D":     mask |= D;     break;
+                case "R":     mask |= REWIND; break;
+                default:      mask |= OTHER;
+            }
+        }
+        return mask;
+    }
+}
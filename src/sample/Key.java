@@ -7,58 +7,40 @@
 
 package sample;
 
-import javafx.collections.ObservableList;
-import javafx.scene.Node;
-import javafx.scene.image.Image;
-
-import java.util.ArrayList;
-
 public class Key extends Button {
     Keyboard direction;     // direction of the key
-    double initialY;        // the initial y-position of the object on the scene graph
 
     /**
      * Constructor
      * @param direction the left or right arrow key
      * @param x the x-position of the arrow key on the screen
-     * @param y the initial y-position of the arrow key on the screen (since the screen is always shifting down, an offset will be applied to maintain this y-position)
+     * @param y the y-position of the arrow key on the screen (the key is drawn on the HUD, so it doesn't move with the screen)
      */
     public Key(Keyboard direction, double x, double y) {
         super(Img.keyRightUp,x,y);
         if (direction == Keyboard.LEFT) {
-            button.setRotate(180);
+            rotation = 180;
         }
         this.direction = direction;
-        initialY = y;
     }
 
     /**
      * Renders the key that is being pressed on to the screen
-     * @param input all of the keyboard events
-     * @param offset the amount that the screen has shifted vertically
+     * @param keys the keys being held down (see Input)
      */
-    public void render(ObservableList<Node> children, ArrayList<String> input, double offset) {
+    public void render(Renderer renderer, int keys) {
         if (direction == Keyboard.LEFT) {
-            if (input.contains("LEFT"))     // when the key is being pressed
-                button.setImage(Img.keyRightDown);
+            if ((keys & Input.LEFT) != 0)   // when the key is being pressed
+                setImage(Img.keyRightDown);
             else
-                button.setImage(Img.keyRightUp);
-            button.setRotate(180);
+                setImage(Img.keyRightUp);
+            rotation = 180;
         } else if (direction == Keyboard.RIGHT) {
-            if (input.contains("RIGHT"))    // when the key is being pressed
-                button.setImage(Img.keyRightDown);
+            if ((keys & Input.RIGHT) != 0)  // when the key is being pressed
+                setImage(Img.keyRightDown);
             else
-                button.setImage(Img.keyRightUp);
+                setImage(Img.keyRightUp);
         }
-        button.setY(initialY-offset);
-        super.render(children);
-    }
-
-    /**
-     * Removes the arrow keys from the display by removing the nodes from the scene graph
-     */
-    public void hide(ObservableList<Node> children) {
-        if (children.contains(button))
-            children.remove(button);
+        super.render(renderer);
     }
 }
@@ -0,0 +1,24 @@
+/**
+ * @File: Layer.java
+ * @Author: Abhi Gupta
+ * @Description: The drawing layers of the scene graph, ordered from the back-most to the front-most. Nodes in a later layer are always
+ *               drawn on top of nodes in an earlier layer regardless of when they were added. The layers of the world scroll with the
+ *               screen whereas the layers of the HUD always stay in place.
+ */
+
+package sample;
+
+public enum Layer {
+    // World
+    SETTLED(false), BIRD(false), BOXES(false),
+    // HUD
+    HUD(true), SIGNS(true), MENU(true);
+
+    private final boolean hud;      // whether or not the layer is part of the HUD
+
+    Layer(boolean hud) {
+        this.hud = hud;
+    }
+
+    public boolean isHud() { return hud; }
+}
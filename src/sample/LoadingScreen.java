@@ -0,0 +1,46 @@
+/**
+ * @File: LoadingScreen.java
+ * @Author: Abhi Gupta
+ * @Description: This class displays a simple progress bar while the assets of the game are being loaded. It is made of plain shapes
+ *               rather than controls so that it can be shown as soon as the window opens.
+ */
+
+package sample;
+
+import javafx.scene.Group;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+
+public class LoadingScreen {
+    private final double BAR_WIDTH = 240;
+    private final double BAR_HEIGHT = 12;
+    private Group root = new Group();
+    private Rectangle bar;      // the part of the progress bar that has been filled
+
+    /**
+     * Constructor
+     * @param width the width of the screen
+     * @param height the height of the screen
+     */
+    public LoadingScreen(double width, double height) {
+        double x = (width - BAR_WIDTH) / 2;
+        double y = (height - BAR_HEIGHT) / 2;
+        Rectangle track = new Rectangle(x, y, BAR_WIDTH, BAR_HEIGHT);
+        track.setArcWidth(BAR_HEIGHT); track.setArcHeight(BAR_HEIGHT);
+        track.setFill(Colour.semiWhite);
+        bar = new Rectangle(x, y, 0, BAR_HEIGHT);
+        bar.setArcWidth(BAR_HEIGHT); bar.setArcHeight(BAR_HEIGHT);
+        bar.setFill(Color.WHITE);
+        root.getChildren().addAll(track, bar);
+    }
+
+    public Group getRoot() { return root; }
+
+    /**
+     * Fills the progress bar
+     * @param fraction the fraction of the assets that have been loaded (0 to 1)
+     */
+    public void setProgress(double fraction) {
+        bar.setWidth(BAR_WIDTH * Math.min(Math.max(fraction, 0), 1));
+    }
+}
@@ -12,91 +12,191 @@
 
 package sample;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
-import javafx.collections.ObservableList;
-import javafx.event.ActionEvent;
+import javafx.application.Platform;
 import javafx.event.EventHandler;
 import javafx.scene.Group;
-import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.paint.*;
 import javafx.stage.Stage;
-import javafx.util.Duration;
-import java.util.ArrayList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 
 public class Main extends Application {
     // Drawing Panels
     Group root;
     Canvas canvas;
     GraphicsContext gc;
+    Scenery scenery;                        // the clouds and the background drawn on the canvas
+    Renderer renderer;                      // the foreground (boxes, bird, HUD and menu) is drawn through the renderer
+    FrameMeter frameMeter;                  // reports the frame rate when the game is started with --stats=true
+    Telemetry telemetry;                    // counts the events of the game and reports them after every game, with --stats=true
+
+    // Game
+    GameWorld world;                        // the state of the game, advanced on the simulation thread
+    WorldView view;                         // draws the snapshots of the game on the JavaFX Application Thread
+    TripleBuffer<Snapshot> snapshots = new TripleBuffer<>(Snapshot::new);     // passes the latest state from the simulation to the view
+    Input input = new Input();
+    GameLoop gameLoop;
+    ReplayRecorder recorder;                // records the session when the game is started with --record=<file>
+    ReplayPlayer replay;                    // plays back a recorded session when the game is started with --replay=<file>
+    boolean replayFinished = false;
+    Rewind rewind;                          // holding R rolls the game back through the last 10 seconds (not while recording or replaying)
+    Path saveFile;                          // the game is saved here when the window is closed and resumed from it (--save=<file>)
+    ByteBuffer savedWorld;                  // the world that is resumed
+    double speed = 1;                       // how many times faster than real time the game is played (--speed=<factor>)
 
-    double screenY = 0;                     // the offset by which the screen's y position has increased
-    int goal = 0;                           // the goal (amount) that the offset needs to reach
-    int maxHeightBeforeTransition = 7;      // the height (units is boxes (3 box high)) of the boxes before the screen shifts down rapidly
-    boolean transition = false;             // whether or not the screen is in transition
-    boolean reset = false;                  // whether or not a new game has to be started
-    double waitPriorToSigns = 300;          // the delay time before the caution signs are displayed (progessively decreases)
-    boolean win = true;                     // so that the game starts at the menu
-    boolean lost = false;
-    int menuWaitTime = 0;                   // the delay time before the user can play again or start a new game
+    long launchTime;                        // the time when the application was started (to measure the time to the first frame)
+    boolean firstFrame = true;              // whether or not the game loop has yet to run
 
     /**
-     * The default method called by JavaFX API to render the game on to the screen.
+     * The default method called by JavaFX API to render the game on to the screen. The window is shown right away with a loading screen
+     * while the assets are decoded in the background, and the game takes over once the assets required by the menu are ready. The backend
+     * that renders the foreground is chosen with the --renderer=scenegraph|canvas|pixelbuffer argument (the scene graph is used by default), and
+     * --stats=true prints the frame rate every few seconds to compare them. The boxes are dropped in a random pattern decided by the seed
+     * of the session, which is shown in the title of the window and can be chosen with --seed=<number> to play the same game again.
+     * A session can be recorded with --record=<file> and played back with --replay=<file>, optionally sped up with --speed=<factor>.
+     * With --save=<file>, the game is saved into the file when the window is closed and picks up where it left off the next time.
+     * Holding R rolls the game back through the last 10 seconds of play (except while recording or playing back a session).
      * @param primaryStage the stage that the game will be rendered on
      */
     @Override
-    public void start(Stage primaryStage) {
-        root = new Group();
-        Scene scene = new Scene(root,400,650);
+    public void start(Stage primaryStage) throws IOException {
+        launchTime = System.nanoTime();
+        String replayParameter = getParameters().getNamed().get("replay");
+        String seedParameter = getParameters().getNamed().get("seed");
+        String saveParameter = getParameters().getNamed().get("save");
+        String speedParameter = getParameters().getNamed().get("speed");
+        if (speedParameter != null) speed = parseSpeed(speedParameter);
+        long seed;
+        if (replayParameter != null) {
+            replay = new ReplayPlayer(Paths.get(replayParameter));
+            seed = replay.getSeed();
+            System.out.println("Replaying " + replayParameter);
+        } else if (saveParameter != null && Files.exists(Paths.get(saveParameter))) {
+            saveFile = Paths.get(saveParameter);
+            savedWorld = ByteBuffer.wrap(Files.readAllBytes(saveFile));
+            seed = GameWorld.readSeed(savedWorld);
+            System.out.println("Resuming from " + saveParameter);
+        } else {
+            if (saveParameter != null) saveFile = Paths.get(saveParameter);
+            seed = seedParameter != null ? Long.parseLong(seedParameter) : RandomStream.newSeed();
+        }
+        System.out.println("Seed: " + seed);
+        String recordParameter = getParameters().getNamed().get("record");
+        if (recordParameter != null && savedWorld != null) {
+            System.out.println("A resumed game can't be recorded, as the recording has to start from the seed");
+        } else if (recordParameter != null && replay == null) {
+            recorder = new ReplayRecorder(Paths.get(recordParameter), seed);
+            System.out.println("Recording to " + recordParameter);
+        }
+        LoadingScreen loadingScreen = new LoadingScreen(400,650);
+        Scene scene = new Scene(loadingScreen.getRoot(),400,650);
         scene.getStylesheets().add(this.getClass().getResource("styleSheet.css").toExternalForm());
         // background gradient
         scene.setFill(new LinearGradient(0, 0, 1, 1, true,
                 CycleMethod.REFLECT,
                 new Stop(0.0, Colour.AQUA_BLUE),
                 new Stop(1.0, Colour.TURQUOISE)));
-        canvas = new Canvas(400,650);
-        root.getChildren().add(canvas);         // only foreground is rendered on root, as it is easier to organize the layout of its children
-        gc = canvas.getGraphicsContext2D();     // only background is rendered on canvas, as it takes the back-most view by default
 
-        // Menu
-        ImageView menu = new ImageView(Img.menu);
-        menu.setX(canvas.getWidth()/2-155);
-        menu.setY(0);
+        // Window Settings
+        primaryStage.setTitle("Run Bird Run! (seed " + seed + ")");
+        primaryStage.setScene(scene);
+        primaryStage.setAlwaysOnTop(true);
+        primaryStage.centerOnScreen();
+        primaryStage.setResizable(false);
+        primaryStage.show();
 
-        // Boxes
-        Transporter fedEx = new Transporter(canvas.getWidth());
+        // Assets
+        AssetLoader assets = new AssetLoader();
+        assets.load(Img.REQUIRED_PAGES, loadingScreen::setProgress).whenComplete((done, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                error.printStackTrace();
+                Platform.exit();
+                return;
+            }
+            String backend = getParameters().getNamed().get("renderer");
+            if ("true".equals(getParameters().getNamed().get("stats")))
+                frameMeter = new FrameMeter(backend == null ? "scenegraph" : backend);
+            startGame(scene, createRenderer(backend), seed);
+            assets.loadLazily(Img.DEFERRED_PAGES);      // the clouds appear once they have been loaded
+        }));
+    }
 
-        // Traffic Signs Controller
-        TrafficController trafficGuard = new TrafficController(fedEx.getNumOfBoxes());
+    /**
+     * Reads the speed the game is played at, a speed of 0 or less would stop the game loop from ever taking a step
+     * @param value the value of the --speed argument
+     */
+    private static double parseSpeed(String value) {
+        double speed;
+        try {
+            speed = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            speed = Double.NaN;
+        }
+        if (!(speed > 0) || Double.isInfinite(speed))
+            throw new IllegalArgumentException("Invalid speed: " + value + " (expected a number greater than 0)");
+        return speed;
+    }
+
+    /**
+     * Creates the backend that renders the foreground of the game
+     * @param name the name of the backend (scenegraph, canvas or pixelbuffer)
+     */
+    private Renderer createRenderer(String name) {
+        if (name == null || name.equals("scenegraph")) {
+            System.out.println("Renderer: scene graph");
+            return new SceneGraphRenderer();
+        } else if (name.equals("canvas")) {
+            System.out.println("Renderer: canvas");
+            return new CanvasRenderer(400,650);
+        } else if (name.equals("pixelbuffer")) {
+            System.out.println("Renderer: pixel buffer");
+            return new PixelBufferRenderer(400,650);
+        }
+        throw new IllegalArgumentException("Unknown renderer: " + name + " (expected scenegraph, canvas or pixelbuffer)");
+    }
 
-        // Score Keeper
-        ScoreKeeper referee = new ScoreKeeper();
+    /**
+     * Builds the scene graph of the game and starts the main game loop
+     * @param scene the scene that the game will be rendered on
+     * @param renderer the backend that renders the foreground of the game
+     * @param seed the seed of the session
+     */
+    private void startGame(Scene scene, Renderer renderer, long seed) {
+        this.renderer = renderer;
+        root = new Group();
+        scene.setRoot(root);
+        canvas = new Canvas(400,650);
+        gc = canvas.getGraphicsContext2D();     // only background is rendered on canvas, as it takes the back-most view by default
+        scenery = new Scenery();
+        root.getChildren().addAll(canvas, renderer.getView());
 
-        // Players
-        Bird player = new Bird(Img.birdRight, fedEx.getInfo());
-        player.setPosition(300,439);
+        world = new GameWorld(canvas.getWidth(), canvas.getHeight(), seed);
+        if (savedWorld != null) world.restore(savedWorld);
+        if (frameMeter != null) telemetry = new Telemetry(world.getEvents());
+        rewind = new Rewind(10 * 60, 1 << 20);
+        view = new WorldView(canvas.getWidth(), canvas.getHeight(), 50);
 
         // Keyboard Input
-        ArrayList<String> input = new ArrayList<String>();
         scene.setOnKeyPressed(new EventHandler<KeyEvent>() {
                     public void handle(KeyEvent e) {
-                        String code = e.getCode().toString();
-                        if (!input.contains(code)) {
-                            input.add(code);
-                        }
+                        input.press(e.getCode().toString());
                     }
                 });
         scene.setOnKeyReleased(new EventHandler<KeyEvent>() {
                     public void handle(KeyEvent e) {
-                        String code = e.getCode().toString();
-                        input.remove(code);
+                        input.release(e.getCode().toString());
                     }
                 });
 
@@ -108,234 +208,78 @@ public class Main extends Application {
                     }
                 });
 
-        // Main Game Loop
-        Timeline gameLoop = new Timeline();
-        gameLoop.setCycleCount(Timeline.INDEFINITE);
-        long timeStart = System.currentTimeMillis();        // the time when the game began
-        KeyFrame kf = new KeyFrame(
-                Duration.seconds(0.017), new EventHandler<ActionEvent>() {
-                    public void handle(ActionEvent ae) {
-                        double t = (System.currentTimeMillis() - timeStart) / 1000.0;       // the amount of time that has progressed since the game began
-
-                        // Clear the canvas
-                        gc.clearRect(0, 0, 400,600);
-                        // Redraw on Canvas
-                        gc.drawImage(Img.bigClouds, 0-(t*8), 70);
-                        drawBackground();                                                   // background is rendered even when the user is not playing to present the animations of the clouds
-                        gc.drawImage(Img.smallClouds, 0-(t*15), 267);
-
-                        // when the user hasn't win or lost the game -> playing the game
-                        if (!win && !lost) {
-                            // All of the settled boxes currently on the screen
-                            int[][] hazards = fedEx.getHazards();
-
-                            // Moves the screen down with growing progression
-                            screenY += 0.122 * (t / 100);
-                            if (reset) {
-                                transition = true;
-                                goal = (int) (screenY + 100 + (50 * (t / 100)));
+        // Main Game Loop (the game advances in fixed steps on the simulation thread, and the latest step is drawn once per frame)
+        gameLoop = new GameLoop() {
+                    @Override
+                    protected void tick() {
+                        if (replay != null) {
+                            if (!replayFinished && !replay.tick(world)) {
+                                replayFinished = true;
+                                System.out.println("Replay finished at step " + world.getTicks());
                             }
-                            if (transition) {
-                                if ((int) screenY != goal) {
-                                    screenY += 0.5;
-                                } else {
-                                    transition = false;
-                                }
-                            } scrollScreen(root.getChildren());
-
-                            // Moves the player
-                            if (player.isAlive()) {
-                                // Collision (for stationary boxes)
-                                boolean collide = player.checkCollision(hazards, fedEx.getActiveBoxBounds(player.getMappedX(hazards), player.getMappedY(hazards)));
-                                // Bird Movement
-                                if ((input.contains("LEFT") || input.contains("A")) && !collide) {
-                                    player.move(Path.LEFT);
-                                    player.rotate(0);
-                                } else if ((input.contains("LEFT") || input.contains("A")) && collide) {
-                                    player.deactivateG();
-                                    player.move(Path.UP);
-                                    player.move(Path.LEFT);
-                                    player.rotate(90);
-                                }
-                                if ((input.contains("RIGHT") || input.contains("D")) && !collide) {
-                                    player.move(Path.RIGHT);
-                                    player.rotate(0);
-                                } else if ((input.contains("RIGHT") || input.contains("D")) && collide) {
-                                    player.deactivateG();
-                                    player.move(Path.UP);
-                                    player.move(Path.RIGHT);
-                                    player.rotate(-90);
-                                }
-                                if (collide && input.isEmpty() || !collide) {
-                                    player.activateG();
-                                }
-                                if (input.isEmpty())
-                                    player.move(Path.STILL);
-                                player.move(Path.DOWN);
-                            }
-                            player.update();    // updates the bird's position with regards to acceleration and velocity
-
-                            // Check health of player
-                            if (player.isAlive()) {
-                                player.render(root.getChildren());  // render's player only if the bird is alive
-                            } else if (fedEx.allOnGround()) {       // when the bird is dead, it waits for all the boxes to stop before going to the menu
-                                win = false;
-                                lost = true;
-                            } if (!player.isAlive() && root.getChildren().contains(player.getImageView())) {
-                                // ACTIVATE SPRITE ANIMATION OF BIRD BEING COMPRESSED BY BOX
-                                root.getChildren().remove(player.getImageView());       // removes the bird from the screen as it is dead
-                            }
-                            player.updateLife(fedEx.deploy(root.getChildren(), t, player, screenY));    // updates the bird's status of whether or not it is alive
-
-                            // Display Score Information
-                            referee.renderScoreBoard(root.getChildren(), input, screenY);
-
-                            // Display Caution Signs
-                            if (fedEx.allOnGround()) {
-                                waitPriorToSigns = 50;
-                                referee.upScore(fedEx.amountOnGround());
-                            }
-                            waitPriorToSigns = waitPriorToSigns > 0 ? waitPriorToSigns - 1 : waitPriorToSigns;
-                            if ((int) waitPriorToSigns == 0) {
-                                trafficGuard.displayWarnings(root.getChildren(), fedEx.getNextBoxes(), fedEx.allOnGround(), screenY);
-                            } else {
-                                trafficGuard.hideWarnings(root.getChildren());
-                            }
-
-                            // Check if boxes have stacked up to a height of 7 boxes -> new level
-                            if (fedEx.reset()) {
-                                player.upGroundPosY(50 * 7);
-                                referee.upLevel();
-                                reset = true;
-                            } else {
-                                reset = false;
-                            }
-                            win = referee.isWinner();
-
-                        // Reset Game to Play Again - hit the arrow keys
-                        } else if ((input.contains("RIGHT") || input.contains("LEFT")) && menuWaitTime >= 60) {
-                            // Reset all internal variables and discard previous data
-                            // Boxes
-                            fedEx.removeBoxesFromGraph(root.getChildren());
-                            fedEx.newGame();
-                            // Traffic Signs Controller
-                            trafficGuard.newGame();
-                            // Score Keeper
-                            referee.removeBoardFromGraph(root.getChildren());
-                            referee.newGame();
-                            // Players
-                            player.newGame();
-                            player.setPosition(300,439);
-                            screenY = 0;
-                            root.getChildren().remove(menu);        // hides the menu from the screen
-                            menuWaitTime = 0;
-//                            timeStart = System.currentTimeMillis();
-                            win = lost = false;
-
-                        // Display Menu after Winning or Losing
+                            if (replayFinished) world.tick(0);      // the world carries on at the menu once the recording has run out
+                        } else if (recorder != null) {
+                            recorder.tick(world, input.get());
+                        } else if ((input.get() & Input.REWIND) != 0) {
+                            rewind.stepBack(world);
                         } else {
-                            menuWaitTime++;
-                            if (!root.getChildren().contains(menu))
-                                root.getChildren().add(menu);
-                                referee.displayScore(root.getChildren());
+                            world.tick(input.get());
+                            rewind.capture(world);
                         }
                     }
-                });
-        gameLoop.getKeyFrames().add(kf);
-        gameLoop.play();
-
-        // Window Settings
-        primaryStage.setTitle("Run Bird Run!");
-        primaryStage.setScene(scene);
-        primaryStage.setAlwaysOnTop(true);
-        primaryStage.centerOnScreen();
-        primaryStage.setResizable(false);
-        primaryStage.show();
-    }
 
-    /**
-     * Shifts the screen down by a constant value
-     * @param children all of the nodes that need to be shifted
-     */
-    private void scrollScreen(ObservableList<Node> children) {
-       if (children.size() >= 2) {
-           for (Node child : children) {
-               child.setTranslateY(screenY);
-           }
-       }
-   }
-
-    /**
-     * Draws all of the elements of the background including the trees and the hills
-     */
-    private void drawBackground() {
-        drawBase();
-        drawGrass();
-        drawTree(195,canvas.getHeight()-170,205,575,Colour.DARK_GREEN,Colour.FOREST_GREEN);
-        drawTree(285,canvas.getHeight()-170,150,520,Colour.BRIGHT_GREEN,Colour.DEEP_GREEN);
-        drawTree(-16,canvas.getHeight()-170,150,530,Colour.DARK_GREEN,Colour.FOREST_GREEN);
-        drawTree(50,canvas.getHeight()-170,130,470,Colour.BRIGHT_GREEN,Colour.DEEP_GREEN);
+                    @Override
+                    protected void publish() {
+                        Snapshot snapshot = snapshots.getBack();
+                        world.capture(snapshot);
+                        snapshot.stamp = System.nanoTime();
+                        snapshots.publish();
+                    }
+                };
+        new AnimationTimer() {
+                    @Override
+                    public void handle(long now) {
+                        render(now);
+                    }
+                }.start();
+        gameLoop.setSpeed(speed);
+        gameLoop.start();
     }
 
     /**
-     * Draws and renders the grass spikes
+     * Stops the simulation, finishes writing the recording and saves the game when the window is closed
      */
-    private void drawGrass() {
-        for (int i = 0; i < 9; i++) {
-            int offset = i*50-35;
-            double lastXPoint = 50+offset > canvas.getWidth() ? canvas.getWidth() : 50+offset;
-            double lastYPoint = 50+offset > canvas.getWidth() ? canvas.getHeight()-145 : canvas.getHeight()-145;
-            gc.setFill(Colour.LIME);
-            gc.fillPolygon(new double[]{offset,25+offset,50+offset}, new double[]{canvas.getHeight()-145,canvas.getHeight()-120,canvas.getHeight()-145},3);
-//            Polygon triangle = new Polygon(offset,canvas.getHeight()-145,25+offset,canvas.getHeight()-120);
-//            if (50+offset > canvas.getWidth()) {
-//                triangle.getPoints().addAll(lastXPoint,lastYPoint+12);
-//            } triangle.getPoints().addAll(lastXPoint,lastYPoint);
-//            triangle.setFill(Colour.LIME);
-//            root.getChildren().add(triangle);
+    @Override
+    public void stop() throws Exception {
+        if (gameLoop != null) gameLoop.stop();
+        if (recorder != null) recorder.close();
+        if (saveFile != null && world != null) {
+            ByteBuffer buffer = ByteBuffer.allocate(GameWorld.SAVE_CAPACITY);
+            world.save(buffer);
+            Files.write(saveFile, Arrays.copyOf(buffer.array(), buffer.position()));
+            System.out.println("Saved to " + saveFile);
         }
     }
 
     /**
-     * Draws and renders the grass layer
-     */
-    private void drawBase() {
-        gc.setFill(Colour.GRASS_GREEN);
-        gc.fillRect(0,canvas.getHeight()-145,canvas.getWidth(),145);
-        gc.setFill(Colour.LIME);
-        gc.fillRect(0,canvas.getHeight()-155,canvas.getWidth(),10);
-        gc.setFill(Colour.ELECTRIC_GREEN);
-        gc.fillRect(0,canvas.getHeight()-170,canvas.getWidth(),15);
-    }
-
-    /**
-     * Draws and renders a tree of specified dimensions
-     * @param x the x position of the tree
-     * @param y the y position of the tree
-     * @param width the width of the tree
-     * @param height the height of the tree
-     * @param left the colour of the left side of the tree
-     * @param right the colour of the right side of the tree
+     * Draws the latest snapshot of the game. Whatever moves is drawn part of the way between where it was at the end of the previous
+     * step and where it is in the snapshot, so that the motion is smooth at any refresh rate.
+     * @param now the time of the current frame (System.nanoTime)
      */
-    private void drawTree(double x, double y, double width, double height, Color left, Color right) {
-        double tempWidth = width < 120 ? 60 : width;
-        double offset = 6; double offsetY = Math.pow(tempWidth,2)/1000;
-        if (height > 400) {
-            offset = 8;
-        } else if (height <= 350) {
-            offset = 4;
+    private void render(long now) {
+        if (firstFrame) {
+            System.out.printf("Time to first frame: %.1f ms%n", (System.nanoTime() - launchTime) / 1e6);
+            firstFrame = false;
         }
-        gc.setFill(left);
-        // Base L
-        gc.fillPolygon(new double[]{x,x+width/2,x+width/2}, new double[]{y,canvas.getHeight()-height,y},3);
-        // Tip L
-        gc.fillPolygon(new double[]{x+width/offset,x+width/2,x+width/2}, new double[]{y*3/4-offsetY,canvas.getHeight()-height,y*3/4-offsetY},3);
+        Snapshot snapshot = snapshots.read();
+        double alpha = Math.max(0, Math.min(1, (double) (now - snapshot.stamp) / GameLoop.STEP_NANOS));
 
-        gc.setFill(right);
-        // Base R
-        gc.fillPolygon(new double[]{x+width/2,x+width/2,x+width}, new double[]{y,canvas.getHeight()-height,y},3);
-        // Tip R
-        gc.fillPolygon(new double[]{x+width/2,x+width/2,x+width*((offset-1)/offset)}, new double[]{y*3/4-offsetY,canvas.getHeight()-height,y*3/4-offsetY},3);
+        // Redraw on Canvas
+        scenery.render(gc, snapshot.time + alpha * GameWorld.TIME_STEP);    // scenery is rendered even when the user is not playing to present the animations of the clouds
+        canvas.setTranslateY(snapshot.previousCameraY + (snapshot.cameraY - snapshot.previousCameraY) * alpha);    // the scenery scrolls with the camera
+        view.render(renderer, snapshot, alpha);
+        if (frameMeter != null) frameMeter.frame(System.nanoTime());
+        if (telemetry != null && telemetry.update()) System.out.println("Events: " + telemetry);
     }
 
     public static void main(String[] args) {
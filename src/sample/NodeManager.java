@@ -0,0 +1,86 @@
+/**
+ * @File: NodeManager.java
+ * @Author: Abhi Gupta
+ * @Description: This class keeps track of which nodes are on the scene graph and in which layer they belong. A node is only added to
+ *               the scene graph the first time it appears in a layer, after that it is hidden and shown again by its visibility, so
+ *               nodes that come and go never shift the other children of their group. Nodes of the world and nodes of the HUD are
+ *               kept in separate groups so that the world can be scrolled by moving its group alone.
+ */
+
+package sample;
+
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+
+import java.util.HashMap;
+
+public class NodeManager {
+    private final ObservableList<Node> world;                       // the nodes that scroll with the screen
+    private final ObservableList<Node> hud;                         // the nodes that always stay in place
+    private final HashMap<Node, Layer> added = new HashMap<>();     // the layer of every node on the scene graph (shown or hidden)
+    private final int[] layerSizes = new int[Layer.values().length];   // the number of nodes in each layer
+
+    /**
+     * Constructor
+     * @param world the nodes of the world group (the list should only be modified through this class from now on)
+     * @param hud the nodes of the HUD group (the list should only be modified through this class from now on)
+     */
+    public NodeManager(ObservableList<Node> world, ObservableList<Node> hud) {
+        this.world = world;
+        this.hud = hud;
+    }
+
+    /**
+     * Shows the node in the specified layer. A node that is already in that layer is only made visible, it is only added to (or moved
+     * on) the scene graph the first time it is shown in a layer.
+     * @param node the node to be displayed
+     * @param layer the layer the node is drawn in
+     */
+    public void show(Node node, Layer layer) {
+        Layer current = added.get(node);
+        if (current != layer) {
+            if (current != null) {
+                childrenOf(current).remove(node);
+                layerSizes[current.ordinal()]--;
+            }
+            childrenOf(layer).add(endOf(layer), node);       // the node is drawn on top of the other nodes in its layer
+            added.put(node, layer);
+            layerSizes[layer.ordinal()]++;
+        }
+        if (!node.isVisible()) node.setVisible(true);
+    }
+
+    /**
+     * Hides the node, it stays on the scene graph in its layer until it is shown again. Nothing happens when the node isn't being shown.
+     * @param node the node to be hidden
+     */
+    public void hide(Node node) {
+        if (added.containsKey(node)) node.setVisible(false);
+    }
+
+    /**
+     * Returns whether or not the node is currently shown
+     */
+    public boolean isShown(Node node) {
+        return added.containsKey(node) && node.isVisible();
+    }
+
+    /**
+     * Returns the group that the nodes of the specified layer belong to
+     */
+    private ObservableList<Node> childrenOf(Layer layer) {
+        return layer.isHud() ? hud : world;
+    }
+
+    /**
+     * Returns the index within its group right after the last node of the specified layer
+     */
+    private int endOf(Layer layer) {
+        int index = 0;
+        for (Layer other : Layer.values()) {
+            if (other.isHud() == layer.isHud()) index += layerSizes[other.ordinal()];
+            if (other == layer) break;
+        }
+        return index;
+    }
+}
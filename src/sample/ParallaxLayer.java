@@ -0,0 +1,47 @@
+/**
+ * @File: ParallaxLayer.java
+ * @Author: Abhi Gupta
+ * @Description: This class scrolls an image horizontally at a constant speed to create a parallax effect. The image is tiled and wraps
+ *               around once it has moved by its own width, so the layer never runs out no matter how long the game has been running.
+ */
+
+package sample;
+
+import javafx.scene.canvas.GraphicsContext;
+
+public class ParallaxLayer {
+    private final Texture image;
+    private final double y;         // the y-position of the layer on the canvas
+    private final double speed;     // the number of pixels the layer moves to the left every second
+
+    /**
+     * Constructor
+     * @param image the image to be scrolled
+     * @param y the y-position of the layer on the canvas
+     * @param speed the number of pixels the layer moves to the left every second
+     */
+    public ParallaxLayer(Texture image, double y, double speed) {
+        this.image = image;
+        this.y = y;
+        this.speed = speed;
+    }
+
+    public double getY() { return y; }
+
+    public double getHeight() { return image.getHeight(); }
+
+    /**
+     * Draws as many copies of the image side by side as needed to cover the width of the canvas
+     * @param gc the graphics context of the canvas
+     * @param time the amount of time that has past since the game began
+     */
+    public void draw(GraphicsContext gc, double time) {
+        if (!image.isLoaded()) return;              // the clouds are loaded lazily after the game has started
+        double width = image.getWidth();
+        double x = -((time * speed) % width);       // wraps around once the image has moved by its own width
+        while (x < gc.getCanvas().getWidth()) {
+            image.draw(gc, x, y);
+            x += width;
+        }
+    }
+}
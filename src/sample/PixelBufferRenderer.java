@@ -0,0 +1,258 @@
+/**
+ * @File: PixelBufferRenderer.java
+ * @Author: Abhi Gupta
+ * @Description: This backend is a small software rasterizer. The pixels of the sprites are copied straight into an array that is shared
+ *               with a PixelBuffer, which is displayed by a single ImageView and handed to the graphics card once per frame. Draw calls
+ *               are recorded into preallocated arrays during the frame and carried out inside the buffer's update callback, so no nodes
+ *               are created and nothing is allocated per sprite or per frame. Sprites can only be rotated by multiples of 90 degrees,
+ *               which is all the game needs.
+ */
+
+package sample;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.image.WritablePixelFormat;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.util.Callback;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+public class PixelBufferRenderer implements Renderer {
+    private final int WIDTH;
+    private final int HEIGHT;
+    private final WritablePixelFormat<IntBuffer> format = PixelFormat.getIntArgbPreInstance();
+    private int[] screen;                       // the pixels on the screen, shared with the pixel buffer
+    private PixelBuffer<IntBuffer> pixelBuffer;
+    private ImageView view;
+    private Callback<PixelBuffer<IntBuffer>, Rectangle2D> blitAll = buffer -> { blitAll(); return null; };   // null marks the whole buffer as changed
+    private double cameraY;                     // the amount by which the layers of the world have scrolled down
+    private long frame = 0;
+
+    // Draw calls recorded during the frame
+    private final int PARAMETERS = 8;           // source x, source y, width, height, source scan, destination x, destination y, quarter turns
+    private int[][] sources = new int[64][];    // the pixels each draw call copies from
+    private int[] parameters = new int[64 * PARAMETERS];
+    private int calls = 0;
+
+    // Pixels copied from the images being drawn
+    private IdentityHashMap<Image, int[]> pages = new IdentityHashMap<>();     // the pixels of every page of the atlas
+    private HashMap<Object, Copy> copies = new HashMap<>();                   // the pixels of every image and text being drawn
+    private ArrayList<Copy> drawn = new ArrayList<>();                         // the same copies in a list, to find those no longer drawn
+    private Text text = new Text();                                             // used to rasterize text
+
+    /**
+     * A copy of the pixels of a whole image or a line of text, along with what it was copied from
+     */
+    private static class Copy {
+        Object key;
+        Object source;          // the image or the text that was copied
+        int version;
+        Font font;
+        Paint fill;
+        int[] pixels;
+        int width;
+        int height;
+        long frame;             // the last frame the copy was drawn in
+    }
+
+    /**
+     * Constructor
+     * @param width the width of the screen
+     * @param height the height of the screen
+     */
+    public PixelBufferRenderer(int width, int height) {
+        WIDTH = width;
+        HEIGHT = height;
+        screen = new int[WIDTH * HEIGHT];
+        pixelBuffer = new PixelBuffer<>(WIDTH, HEIGHT, IntBuffer.wrap(screen), format);
+        view = new ImageView(new WritableImage(pixelBuffer));
+    }
+
+    @Override
+    public Node getView() { return view; }
+
+    @Override
+    public void beginFrame(double cameraY) {
+        this.cameraY = cameraY;
+        frame++;
+        calls = 0;
+    }
+
+    @Override
+    public void drawSprite(Object key, Texture texture, double x, double y, double rotate, Layer layer) {
+        if (!texture.isLoaded()) return;
+        Image atlas = texture.getAtlas();
+        int[] page = pages.get(atlas);
+        if (page == null) {     // the page is only copied the first time one of its textures is drawn
+            page = read(atlas, (int) atlas.getWidth(), (int) atlas.getHeight());
+            pages.put(atlas, page);
+        }
+        Rectangle2D viewport = texture.getViewport();
+        record(page, (int) viewport.getMinX(), (int) viewport.getMinY(), (int) viewport.getWidth(), (int) viewport.getHeight(),
+                (int) atlas.getWidth(), x, toScreen(y, layer), (int) Math.round(rotate / 90));
+    }
+
+    @Override
+    public void drawImage(Object key, Image image, int version, double x, double y, Layer layer) {
+        Copy copy = copies.get(key);
+        if (copy == null) copy = add(key);
+        if (copy.source != image || copy.version != version || copy.pixels == null) {
+            copy.source = image;
+            copy.version = version;
+            copy.width = (int) image.getWidth();
+            copy.height = (int) image.getHeight();
+            if (copy.pixels == null || copy.pixels.length != copy.width * copy.height) copy.pixels = new int[copy.width * copy.height];
+            image.getPixelReader().getPixels(0, 0, copy.width, copy.height, format, copy.pixels, 0, copy.width);
+        }
+        copy.frame = frame;
+        record(copy.pixels, 0, 0, copy.width, copy.height, copy.width, x, toScreen(y, layer), 0);
+    }
+
+    @Override
+    public void drawText(Object key, String string, double x, double y, Font font, Paint fill, Layer layer) {
+        Copy copy = copies.get(key);
+        if (copy == null) copy = add(key);
+        if (!string.equals(copy.source) || copy.font != font || copy.fill != fill) {     // the text is only rasterized when it changes
+            text.setText(string);
+            text.setFont(font);
+            text.setFill(fill);
+            SnapshotParameters parameters = new SnapshotParameters();
+            parameters.setFill(Color.TRANSPARENT);
+            WritableImage image = text.snapshot(parameters, null);
+            copy.source = string;
+            copy.font = font;
+            copy.fill = fill;
+            copy.width = (int) image.getWidth();
+            copy.height = (int) image.getHeight();
+            copy.pixels = read(image, copy.width, copy.height);
+        }
+        copy.frame = frame;
+        record(copy.pixels, 0, 0, copy.width, copy.height, copy.width, x, toScreen(y, layer), 0);
+    }
+
+    /**
+     * Copies all of the draw calls of the frame into the pixel buffer and discards the copies that weren't drawn
+     */
+    @Override
+    public void endFrame() {
+        pixelBuffer.updateBuffer(blitAll);
+        int kept = 0;
+        for (int i = 0; i < drawn.size(); i++) {
+            Copy copy = drawn.get(i);
+            if (copy.frame == frame) {
+                drawn.set(kept++, copy);
+            } else {
+                copies.remove(copy.key);
+            }
+        }
+        while (drawn.size() > kept) drawn.remove(drawn.size() - 1);
+    }
+
+    /**
+     * Records a draw call, the pixels are only copied once the pixel buffer can be modified
+     */
+    private void record(int[] source, int sourceX, int sourceY, int width, int height, int scan, double x, double y, int turns) {
+        if (calls == sources.length) {
+            sources = Arrays.copyOf(sources, calls * 2);
+            parameters = Arrays.copyOf(parameters, calls * 2 * PARAMETERS);
+        }
+        sources[calls] = source;
+        int p = calls * PARAMETERS;
+        parameters[p] = sourceX;
+        parameters[p + 1] = sourceY;
+        parameters[p + 2] = width;
+        parameters[p + 3] = height;
+        parameters[p + 4] = scan;
+        parameters[p + 5] = (int) Math.round(x);
+        parameters[p + 6] = (int) Math.round(y);
+        parameters[p + 7] = turns & 3;
+        calls++;
+    }
+
+    /**
+     * Clears the screen and carries out every draw call of the frame in order (called from within the buffer's update callback)
+     */
+    private void blitAll() {
+        Arrays.fill(screen, 0);
+        for (int i = 0; i < calls; i++) {
+            int p = i * PARAMETERS;
+            blit(sources[i], parameters[p], parameters[p + 1], parameters[p + 2], parameters[p + 3], parameters[p + 4],
+                    parameters[p + 5], parameters[p + 6], parameters[p + 7]);
+            sources[i] = null;
+        }
+    }
+
+    /**
+     * Blends a region of premultiplied pixels on to the screen, rotated clockwise about its center by a number of quarter turns
+     */
+    private void blit(int[] source, int sourceX, int sourceY, int width, int height, int scan, int x, int y, int turns) {
+        boolean sideways = (turns & 1) == 1;
+        int destWidth = sideways ? height : width;
+        int destHeight = sideways ? width : height;
+        int left = x + (width - destWidth) / 2;      // the rotated region keeps the same center
+        int top = y + (height - destHeight) / 2;
+        int fromX = Math.max(0, -left), toX = Math.min(destWidth, WIDTH - left);
+        int fromY = Math.max(0, -top), toY = Math.min(destHeight, HEIGHT - top);
+        for (int dy = fromY; dy < toY; dy++) {
+            int row = (top + dy) * WIDTH + left;
+            for (int dx = fromX; dx < toX; dx++) {
+                int sx, sy;
+                switch (turns) {
+                    case 1:  sx = dy;             sy = height - 1 - dx; break;
+                    case 2:  sx = width - 1 - dx; sy = height - 1 - dy; break;
+                    case 3:  sx = width - 1 - dy; sy = dx;              break;
+                    default: sx = dx;             sy = dy;
+                }
+                int pixel = source[(sourceY + sy) * scan + sourceX + sx];
+                int alpha = pixel >>> 24;
+                if (alpha == 255) {
+                    screen[row + dx] = pixel;
+                } else if (alpha != 0) {
+                    int under = screen[row + dx];
+                    int remaining = 255 - alpha;
+                    int redBlue = ((under & 0xFF00FF) * remaining >>> 8) & 0xFF00FF;
+                    int alphaGreen = ((under >>> 8) & 0xFF00FF) * remaining & 0xFF00FF00;
+                    screen[row + dx] = pixel + (redBlue | alphaGreen);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the premultiplied pixels of an image
+     */
+    private int[] read(Image image, int width, int height) {
+        int[] pixels = new int[width * height];
+        image.getPixelReader().getPixels(0, 0, width, height, format, pixels, 0, width);
+        return pixels;
+    }
+
+    private Copy add(Object key) {
+        Copy copy = new Copy();
+        copy.key = key;
+        copies.put(key, copy);
+        drawn.add(copy);
+        return copy;
+    }
+
+    /**
+     * Converts a y-position of the specified layer to a y-position on the screen
+     */
+    private double toScreen(double y, Layer layer) {
+        return layer.isHud() ? y : y + cameraY;
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * @File: RandomStream.java
+ * @Author: Abhi Gupta
+ * @Description: This class is a seeded source of random numbers (SplitMix64). Each game session has a single seed, from which a separate
+ *               stream is derived for each use (the layout of the boxes, their rotation and the difficulty adjustments), so that drawing
+ *               more numbers for one use never changes the numbers of another. The same seed and the same keys always produce the same
+ *               game, on any machine.
+ */
+
+package sample;
+
+public class RandomStream {
+    public final static long LAYOUT = 1;            // which boxes are dropped and which warnings are shown
+    public final static long ROTATION = 2;          // which boxes are turned on their side
+    public final static long DIFFICULTY = 3;        // the adjustments that keep the game fair
+    private final static long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private long state;
+
+    /**
+     * Constructor
+     * @param seed the seed of the session
+     * @param stream which of the streams of the session this is (LAYOUT, ROTATION or DIFFICULTY)
+     */
+    public RandomStream(long seed, long stream) {
+        state = mix(seed + stream * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Returns a new random seed for a session
+     */
+    public static long newSeed() {
+        return mix(System.nanoTime() ^ System.currentTimeMillis() * GOLDEN_GAMMA);
+    }
+
+    public long getState() { return state; }
+
+    /**
+     * Continues the stream from a state returned by getState
+     */
+    public void setState(long state) { this.state = state; }
+
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix(state);
+    }
+
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    /**
+     * Returns a random number from 0 (inclusive) to the specified bound (exclusive)
+     */
+    public int nextInt(int bound) {
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
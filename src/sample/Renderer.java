@@ -0,0 +1,67 @@
+/**
+ * @File: Renderer.java
+ * @Author: Abhi Gupta
+ * @Description: This interface is what the game loop draws the foreground of the game through. Everything that is visible has to be
+ *               drawn again every frame, from the back-most layer to the front-most, and anything that isn't drawn during a frame
+ *               disappears. How it is actually displayed is left to the backend, which is chosen when the game starts.
+ */
+
+package sample;
+
+import javafx.scene.Node;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+
+public interface Renderer {
+    /**
+     * Returns the node that displays everything drawn by this renderer
+     */
+    Node getView();
+
+    /**
+     * Starts a new frame
+     * @param cameraY the amount by which the layers of the world have scrolled down
+     */
+    void beginFrame(double cameraY);
+
+    /**
+     * Draws a texture of the atlas
+     * @param key the object being drawn (the same object must use the same key every frame)
+     * @param texture the texture to be drawn
+     * @param x the x-position of the texture
+     * @param y the y-position of the texture
+     * @param rotate the clockwise rotation in degrees about the center of the texture
+     * @param layer the layer the texture is drawn in
+     */
+    void drawSprite(Object key, Texture texture, double x, double y, double rotate, Layer layer);
+
+    /**
+     * Draws a whole image
+     * @param key the object being drawn (the same object must use the same key every frame)
+     * @param image the image to be drawn
+     * @param version changes whenever the pixels of the image are modified (backends that keep a copy of the pixels use it to know when
+     *                to copy them again)
+     * @param x the x-position of the image
+     * @param y the y-position of the image
+     * @param layer the layer the image is drawn in
+     */
+    void drawImage(Object key, Image image, int version, double x, double y, Layer layer);
+
+    /**
+     * Draws a line of text
+     * @param key the object being drawn (the same object must use the same key every frame)
+     * @param text the text to be drawn
+     * @param x the x-position of the left of the text
+     * @param y the y-position of the top of the text
+     * @param font the font of the text
+     * @param fill the colour of the text
+     * @param layer the layer the text is drawn in
+     */
+    void drawText(Object key, String text, double x, double y, Font font, Paint fill, Layer layer);
+
+    /**
+     * Finishes the frame, removing anything that wasn't drawn during it
+     */
+    void endFrame();
+}
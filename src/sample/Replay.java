@@ -0,0 +1,18 @@
+/**
+ * @File: Replay.java
+ * @Author: Abhi Gupta
+ * @Description: This class describes the format of a recorded session. A replay starts with a header holding the seed of the session,
+ *               followed by a single byte per step with the keys that were held down. Every few seconds a checksum of the world is
+ *               inserted (a marker byte followed by 8 bytes), so that playback can tell exactly when it stopped matching the recording.
+ */
+
+package sample;
+
+public class Replay {
+    public final static int MAGIC = 0x52425252;            // "RBRR"
+    public final static int VERSION = 4;
+    public final static int HEADER_SIZE = 16;              // magic, version and seed
+    public final static int CHECKSUM = 0x80;               // marks a checksum (the keys of a step never use the high bit)
+    public final static int CHECKSUM_SIZE = 9;
+    public final static int CHECKSUM_INTERVAL = 600;       // the number of steps between checksums (10 seconds)
+}
@@ -0,0 +1,67 @@
+/**
+ * @File: ReplayPlayer.java
+ * @Author: Abhi Gupta
+ * @Description: This class plays back a recorded session. The file is mapped into memory and the keys of every step are fed to the world
+ *               in place of the keyboard, so the session is played exactly as it was recorded, at any speed. The checksums in the file
+ *               are compared with the world as they come up to report the first step at which playback no longer matches.
+ */
+
+package sample;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class ReplayPlayer {
+    private final MappedByteBuffer replay;
+    private final long seed;
+    private long divergedAt = -1;       // the first step at which the world didn't match the recording
+
+    /**
+     * Constructor - maps the file into memory and reads the header
+     * @param path the recorded session
+     */
+    public ReplayPlayer(Path path) throws IOException {
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            replay = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+        }
+        if (replay.remaining() < Replay.HEADER_SIZE || replay.getInt() != Replay.MAGIC)
+            throw new IOException(path + " is not a replay");
+        int version = replay.getInt();
+        if (version != Replay.VERSION)
+            throw new IOException(path + " was recorded with version " + version + " of the replay format (expected " + Replay.VERSION + ")");
+        seed = replay.getLong();
+    }
+
+    /**
+     * Returns the seed of the recorded session, the world being played back must be created with it
+     */
+    public long getSeed() { return seed; }
+
+    /**
+     * Advances the world by a single step with the keys that were recorded for it
+     * @param world the world being played back
+     * @return whether or not there was a step left to be played
+     */
+    public boolean tick(GameWorld world) {
+        if (replay.hasRemaining() && (replay.get(replay.position()) & Replay.CHECKSUM) != 0) {
+            if (replay.remaining() < Replay.CHECKSUM_SIZE) return false;
+            replay.get();
+            long expected = replay.getLong();
+            if (divergedAt < 0 && expected != world.checksum()) {
+                divergedAt = world.getTicks();
+                System.out.println("Replay diverged from the recording at step " + divergedAt);
+            }
+        }
+        if (!replay.hasRemaining()) return false;
+        world.tick(replay.get());
+        return true;
+    }
+
+    /**
+     * Returns the first step at which the world didn't match the recording, or -1 if it has matched so far
+     */
+    public long getDivergedAt() { return divergedAt; }
+}
@@ -0,0 +1,101 @@
+/**
+ * @File: ReplayRecorder.java
+ * @Author: Abhi Gupta
+ * @Description: This class records a session while it is being played. The simulation thread only copies a byte per step into a chunk
+ *               of memory; full chunks are handed over to a background thread which writes them to the file, so recording never waits
+ *               on the disk. The chunks are reused once they have been written.
+ */
+
+package sample;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+public class ReplayRecorder {
+    private final static int CHUNK_SIZE = 4096;                        // a little over a minute of steps
+    private final static ByteBuffer END = ByteBuffer.allocate(0);      // tells the writer that the recording is over
+    private final FileChannel file;
+    private final LinkedBlockingQueue<ByteBuffer> written = new LinkedBlockingQueue<>();     // the chunks waiting to be written
+    private final ConcurrentLinkedQueue<ByteBuffer> free = new ConcurrentLinkedQueue<>();    // the chunks that can be reused
+    private final Thread writer;
+    private ByteBuffer chunk;               // the chunk being filled (only used by the simulation thread)
+    private volatile IOException failure;   // the error the writer ran into, if any
+
+    /**
+     * Constructor - creates the file and writes the header
+     * @param path the file the session is recorded into
+     * @param seed the seed of the session
+     */
+    public ReplayRecorder(Path path, long seed) throws IOException {
+        file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        chunk = ByteBuffer.allocate(CHUNK_SIZE);
+        chunk.putInt(Replay.MAGIC).putInt(Replay.VERSION).putLong(seed);
+        writer = new Thread(this::write, "replay-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Advances the world by a single step and records the keys that were held down during it
+     * @param world the world being recorded
+     * @param keys the keys that are being held down (see Input)
+     */
+    public void tick(GameWorld world, int keys) {
+        if (chunk.remaining() < 1 + Replay.CHECKSUM_SIZE) handOver();
+        chunk.put((byte) keys);
+        world.tick(keys);
+        if (world.getTicks() % Replay.CHECKSUM_INTERVAL == 0) {
+            chunk.put((byte) Replay.CHECKSUM).putLong(world.checksum());
+        }
+    }
+
+    /**
+     * Writes what is left of the recording and closes the file (the simulation must no longer be recording)
+     */
+    public void close() throws IOException {
+        handOver();
+        written.add(END);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        file.close();
+        if (failure != null) throw failure;
+    }
+
+    /**
+     * Passes the current chunk to the writer and starts filling another one
+     */
+    private void handOver() {
+        chunk.flip();
+        written.add(chunk);
+        chunk = free.poll();
+        if (chunk == null) chunk = ByteBuffer.allocate(CHUNK_SIZE);
+        chunk.clear();
+    }
+
+    /**
+     * Writes the chunks to the file as they are handed over (runs on the writer thread)
+     */
+    private void write() {
+        try {
+            while (true) {
+                ByteBuffer next = written.take();
+                if (next == END) return;
+                while (next.hasRemaining() && failure == null) file.write(next);
+                free.add(next);
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            failure = new InterruptedIOException("The replay writer was interrupted");
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/**
+ * @File: Rewind.java
+ * @Author: Abhi Gupta
+ * @Description: This class remembers the last few seconds of play so that the game can be rolled back one step at a time. After every
+ *               step the world is saved and only the bytes that changed since the previous step are kept (the two saves are XORed and
+ *               the runs of unchanged bytes are skipped), with a full copy of the world every second as a keyframe. The steps are kept
+ *               in a ring within a single preallocated arena, where the oldest steps are overwritten, so the memory used is fixed and
+ *               nothing is allocated while playing.
+ */
+
+package sample;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class Rewind {
+    private final static int KEYFRAME_INTERVAL = 60;        // the number of steps between full copies of the world
+    private final static byte KEYFRAME = 1;
+    private final byte[] arena;                             // the steps, one after another (wrapping around to the start)
+    private final int[] offsets;                            // where each step starts in the arena
+    private final int[] lengths;                            // the number of bytes each step takes in the arena
+    private final int[] stateLengths;                       // the size of the saved world at each step
+    private final byte[] kinds;                             // whether each step is a keyframe or the changes since the previous step
+    private int oldest = 0;                                 // the index of the oldest step in the ring
+    private int count = 0;                                  // the number of steps in the ring
+    private int sinceKeyframe = KEYFRAME_INTERVAL;          // the number of steps since the last keyframe
+    private final byte[] current = new byte[GameWorld.SAVE_CAPACITY];   // the world at the newest step (zero past its length)
+    private int currentLength = 0;
+    private final ByteBuffer currentBuffer = ByteBuffer.wrap(current);      // the world is restored from here
+    private final byte[] next = new byte[GameWorld.SAVE_CAPACITY];      // the world being saved or rebuilt
+    private final ByteBuffer nextBuffer = ByteBuffer.wrap(next);
+    private final byte[] delta = new byte[GameWorld.SAVE_CAPACITY * 2];
+
+    /**
+     * Constructor
+     * @param steps the number of steps that can be rolled back (at most)
+     * @param arenaSize the number of bytes the steps are kept in (at least GameWorld.SAVE_CAPACITY)
+     */
+    public Rewind(int steps, int arenaSize) {
+        if (arenaSize < GameWorld.SAVE_CAPACITY) throw new IllegalArgumentException("The arena can't hold a keyframe: " + arenaSize);
+        arena = new byte[arenaSize];
+        offsets = new int[steps];
+        lengths = new int[steps];
+        stateLengths = new int[steps];
+        kinds = new byte[steps];
+    }
+
+    /**
+     * Remembers the world as it is after a step
+     */
+    public void capture(GameWorld world) {
+        nextBuffer.clear();
+        world.save(nextBuffer);
+        int nextLength = nextBuffer.position();
+        int deltaLength = count > 0 && sinceKeyframe < KEYFRAME_INTERVAL ? encode(current, currentLength, next, nextLength) : -1;
+        boolean keyframe = deltaLength < 0 || deltaLength >= nextLength;
+        int offset = makeRoom(keyframe ? nextLength : deltaLength);
+        if (!keyframe && count == 0) {          // the steps the changes were based on had to make room, so the whole world is kept
+            keyframe = true;
+            offset = makeRoom(nextLength);
+        }
+        int entry = index(count);
+        if (keyframe) {
+            System.arraycopy(next, 0, arena, offset, nextLength);
+        } else {
+            System.arraycopy(delta, 0, arena, offset, deltaLength);
+        }
+        offsets[entry] = offset;
+        lengths[entry] = keyframe ? nextLength : deltaLength;
+        stateLengths[entry] = nextLength;
+        kinds[entry] = keyframe ? KEYFRAME : 0;
+        count++;
+        sinceKeyframe = keyframe ? 1 : sinceKeyframe + 1;
+        setCurrent(next, nextLength);
+    }
+
+    /**
+     * Rolls the world back by a single step
+     * @return whether or not there was a step to be rolled back to
+     */
+    public boolean stepBack(GameWorld world) {
+        if (count < 2) return false;
+        int newest = index(count - 1);
+        int previousLength = stateLengths[index(count - 2)];
+        if (kinds[newest] == KEYFRAME) {
+            rebuild(count - 2);                                 // the previous step has to be rebuilt from the keyframe before it
+            setCurrent(next, previousLength);
+        } else {
+            decode(arena, offsets[newest], lengths[newest], current);
+            currentLength = previousLength;
+        }
+        count--;
+        sinceKeyframe = stepsSinceKeyframe();
+        currentBuffer.limit(currentLength).position(0);
+        world.restore(currentBuffer);
+        world.savePositions();                                  // the world jumps back a whole step rather than being interpolated
+        return true;
+    }
+
+    /**
+     * Forgets all of the steps
+     */
+    public void clear() {
+        count = 0;
+        oldest = 0;
+        sinceKeyframe = KEYFRAME_INTERVAL;
+    }
+
+    /**
+     * Rebuilds the world at the specified step (counted from the oldest) into next, from the keyframe at or before it
+     */
+    private void rebuild(int step) {
+        int keyframe = step;
+        while (kinds[index(keyframe)] != KEYFRAME) keyframe--;
+        int entry = index(keyframe);
+        System.arraycopy(arena, offsets[entry], next, 0, lengths[entry]);
+        Arrays.fill(next, lengths[entry], next.length, (byte) 0);
+        for (int i = keyframe + 1; i <= step; i++) {
+            entry = index(i);
+            decode(arena, offsets[entry], lengths[entry], next);
+        }
+    }
+
+    /**
+     * Returns the number of steps from the newest keyframe to the newest step
+     */
+    private int stepsSinceKeyframe() {
+        int steps = 1;
+        while (kinds[index(count - steps)] != KEYFRAME) steps++;
+        return steps;
+    }
+
+    /**
+     * Makes the newest step the specified save of the world
+     */
+    private void setCurrent(byte[] state, int length) {
+        System.arraycopy(state, 0, current, 0, length);
+        if (length < currentLength) Arrays.fill(current, length, currentLength, (byte) 0);
+        currentLength = length;
+    }
+
+    /**
+     * Writes the changes between two saves of the world into delta, as pairs of an unchanged run and a changed run (each run length is
+     * an unsigned short, and the changed bytes are stored XORed with the old ones)
+     * @return the number of bytes written
+     */
+    private int encode(byte[] from, int fromLength, byte[] to, int toLength) {
+        int length = Math.max(fromLength, toLength);
+        int out = 0;
+        int i = 0;
+        while (i < length) {
+            int start = i;
+            while (i < length && at(from, fromLength, i) == at(to, toLength, i)) i++;
+            if (i == length) break;
+            int skip = i - start;
+            int changedStart = i;
+            int same = 0;           // short unchanged runs are stored as changes, as a new pair would cost more
+            while (i < length && same < 4) {
+                same = at(from, fromLength, i) == at(to, toLength, i) ? same + 1 : 0;
+                i++;
+            }
+            int changed = i - changedStart - same;
+            i -= same;
+            if (out + 4 + changed > delta.length) return -1;
+            delta[out++] = (byte) (skip >>> 8);
+            delta[out++] = (byte) skip;
+            delta[out++] = (byte) (changed >>> 8);
+            delta[out++] = (byte) changed;
+            for (int j = 0; j < changed; j++) {
+                delta[out++] = (byte) (at(from, fromLength, changedStart + j) ^ at(to, toLength, changedStart + j));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Applies changes written by encode to a save of the world (XOR undoes itself, so the same changes lead both ways)
+     */
+    private static void decode(byte[] source, int offset, int length, byte[] state) {
+        int position = 0;
+        int end = offset + length;
+        while (offset < end) {
+            int skip = ((source[offset] & 0xFF) << 8) | (source[offset + 1] & 0xFF);
+            int changed = ((source[offset + 2] & 0xFF) << 8) | (source[offset + 3] & 0xFF);
+            offset += 4;
+            position += skip;
+            for (int j = 0; j < changed; j++) state[position++] ^= source[offset++];
+        }
+    }
+
+    private static byte at(byte[] state, int length, int i) {
+        return i < length ? state[i] : 0;
+    }
+
+    /**
+     * Finds room for a step after the newest one, overwriting the oldest steps when the ring or the arena is full
+     * @return where the step starts in the arena
+     */
+    private int makeRoom(int length) {
+        if (count == offsets.length) dropOldest();
+        int offset = count == 0 ? 0 : offsets[index(count - 1)] + lengths[index(count - 1)];
+        if (offset + length > arena.length) offset = 0;         // the step doesn't fit at the end of the arena, wraps around
+        while (count > 0 && overlaps(offsets[oldest], lengths[oldest], offset, length)) dropOldest();
+        return offset;
+    }
+
+    /**
+     * Drops the oldest step, along with the steps that depended on it up to the next keyframe
+     */
+    private void dropOldest() {
+        do {
+            oldest = (oldest + 1) % offsets.length;
+            count--;
+        } while (count > 0 && kinds[oldest] != KEYFRAME);
+        if (count == 0) sinceKeyframe = KEYFRAME_INTERVAL;      // the next step has to be a keyframe
+    }
+
+    private static boolean overlaps(int offset, int length, int otherOffset, int otherLength) {
+        return offset < otherOffset + otherLength && otherOffset < offset + length;
+    }
+
+    private int index(int step) {
+        return (oldest + step) % offsets.length;
+    }
+}
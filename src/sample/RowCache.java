@@ -0,0 +1,157 @@
+/**
+ * @File: RowCache.java
+ * @Author: Abhi Gupta
+ * @Description: This class merges the boxes that have settled into a single cached image per row. Once a box has landed, its pixels are
+ *               copied into the image of its row and the box is no longer drawn on its own, so the number of things drawn every frame
+ *               only depends on the boxes that are still moving rather than on how long the game has been played. The cache lives on
+ *               the JavaFX Application Thread and catches up with the boxes that settled in the simulation from every snapshot it draws.
+ */
+
+package sample;
+
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.image.WritablePixelFormat;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+public class RowCache {
+    private final int ROW_WIDTH;
+    private final int ROW_HEIGHT;
+    private final WritablePixelFormat<IntBuffer> format = PixelFormat.getIntArgbInstance();
+    private HashMap<Integer, Row> rowsByY = new HashMap<>();     // the cached image of each row, keyed by the y-position of the row
+    private ArrayList<Row> rows = new ArrayList<>();             // the same rows from the lowest to the highest on the screen
+    private int[] source;       // the pixels of the box being baked
+    private int[] rotated;      // the pixels of the box being baked after being rotated
+    private int game = 0;       // the game the cached rows belong to
+    private int baked = 0;      // the number of settled boxes that have been baked since the start of the game
+
+    /**
+     * The cached image of a single row of settled boxes
+     */
+    private static class Row {
+        double x;               // keeps the sub-pixel padding between the boxes
+        int y;
+        WritableImage image;
+        int version = 0;        // the number of boxes baked into the image
+    }
+
+    /**
+     * Constructor
+     * @param rowWidth the width of a row of boxes (the width of the screen)
+     * @param rowHeight the height of a single row of boxes
+     */
+    public RowCache(double rowWidth, double rowHeight) {
+        ROW_WIDTH = (int) rowWidth;
+        ROW_HEIGHT = (int) rowHeight;
+    }
+
+    /**
+     * Bakes the boxes that have settled since the last snapshot, and discards the rows that have scrolled off the screen
+     * @param snapshot the latest state of the game
+     * @param bottom the y-position of the bottom of the screen in the world
+     */
+    public void sync(Snapshot snapshot, double bottom) {
+        if (snapshot.settledGame != game || snapshot.settledTotal < baked) {     // a new game, or the game was rolled back
+            clear();
+            game = snapshot.settledGame;
+            baked = 0;
+        }
+        for (int i = Math.max(baked, snapshot.settledFirst); i < snapshot.settledTotal; i++) {
+            int entry = i - snapshot.settledFirst;
+            bake(snapshot.settledX[entry], snapshot.settledY[entry], snapshot.settledTexture[entry], snapshot.settledRotation[entry]);
+        }
+        baked = Math.max(baked, snapshot.settledTotal);
+        cullBelow(bottom);
+    }
+
+    /**
+     * Copies a box that has come to rest into the image of its row
+     * @param x the x-position of the box
+     * @param y the y-position of the row the box settled in
+     * @param image the image of the box
+     * @param angle the rotation of the box
+     */
+    private void bake(double x, double y, Texture image, int angle) {
+        int rowY = (int) y;
+        Row row = rowsByY.get(rowY);
+        if (row == null) {
+            row = new Row();
+            row.x = x - (int) x;
+            row.y = rowY;
+            row.image = new WritableImage(ROW_WIDTH, ROW_HEIGHT);
+            rowsByY.put(rowY, row);
+            rows.add(row);
+        }
+        int width = Math.min((int) image.getWidth(), ROW_WIDTH - (int) x);
+        int height = Math.min((int) image.getHeight(), ROW_HEIGHT);
+        if (source == null || source.length < width * height) {
+            source = new int[width * height];
+            rotated = new int[width * height];
+        }
+        image.readPixels(source, width, height);
+        int[] pixels = rotate(source, width, height, angle);
+        row.image.getPixelWriter().setPixels((int) x, 0, width, height, format, pixels, 0, width);
+        row.version++;
+    }
+
+    /**
+     * Draws the cached image of every row
+     */
+    public void render(Renderer renderer) {
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            renderer.drawImage(row, row.image, row.version, row.x, row.y, Layer.SETTLED);
+        }
+    }
+
+    /**
+     * Rotates the pixels of a square image clockwise by a multiple of 90 degrees, the same way an ImageView rotates about its center
+     * @param pixels the pixels of the image
+     * @param width the width of the image
+     * @param height the height of the image
+     * @param angle the amount of rotation
+     * @return the rotated pixels
+     */
+    private int[] rotate(int[] pixels, int width, int height, int angle) {
+        int turns = ((angle / 90) % 4 + 4) % 4;
+        if (turns == 0 || width != height) return pixels;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int sourceX = x, sourceY = y;
+                if (turns == 1) {
+                    sourceX = y; sourceY = width - 1 - x;
+                } else if (turns == 2) {
+                    sourceX = width - 1 - x; sourceY = height - 1 - y;
+                } else if (turns == 3) {
+                    sourceX = height - 1 - y; sourceY = x;
+                }
+                rotated[y * width + x] = pixels[sourceY * width + sourceX];
+            }
+        }
+        return rotated;
+    }
+
+    /**
+     * Discards the rows that are entirely below the specified y-position
+     * @param bottom the y-position of the bottom of the screen in the world
+     */
+    private void cullBelow(double bottom) {
+        int culled = 0;
+        while (culled < rows.size() && rows.get(culled).y >= bottom) {
+            rowsByY.remove(rows.get(culled).y);
+            culled++;
+        }
+        if (culled > 0) rows.subList(0, culled).clear();
+    }
+
+    /**
+     * Discards all of the cached rows
+     */
+    private void clear() {
+        rowsByY = new HashMap<>();
+        rows = new ArrayList<>();
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * @File: SceneGraphRenderer.java
+ * @Author: Abhi Gupta
+ * @Description: This backend displays everything as nodes of the scene graph. Each object that is drawn is given its own node, which
+ *               stays on the scene graph for as long as the object keeps being drawn and is updated in place every frame. The world
+ *               is scrolled by moving its group alone, and the nodes of objects that are no longer drawn are reused for new ones.
+ */
+
+package sample;
+
+import javafx.geometry.VPos;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+public class SceneGraphRenderer implements Renderer {
+    private Group view = new Group();
+    private Group world = new Group();          // the nodes that scroll with the screen (the camera)
+    private Group hud = new Group();            // the nodes that always stay in place
+    private NodeManager nodes = new NodeManager(world.getChildren(), hud.getChildren());
+    private HashMap<Object, Entry> entries = new HashMap<>();       // the node of every object that is currently drawn
+    private ArrayList<Entry> shown = new ArrayList<>();             // the same entries in a list, to find those that weren't drawn
+    private ArrayDeque<ImageView> freeImages = new ArrayDeque<>();  // nodes that are no longer used and can be given to new objects
+    private ArrayDeque<Text> freeTexts = new ArrayDeque<>();
+    private long frame = 0;
+
+    /**
+     * The node of an object along with the last frame it was drawn in
+     */
+    private static class Entry {
+        Object key;
+        Node node;
+        long frame;
+    }
+
+    public SceneGraphRenderer() {
+        view.getChildren().addAll(world, hud);
+    }
+
+    @Override
+    public Node getView() { return view; }
+
+    @Override
+    public void beginFrame(double cameraY) {
+        frame++;
+        world.setTranslateY(cameraY);
+    }
+
+    @Override
+    public void drawSprite(Object key, Texture texture, double x, double y, double rotate, Layer layer) {
+        ImageView view = image(key, layer);
+        texture.applyTo(view);
+        view.setX(x); view.setY(y);
+        view.setRotate(rotate);
+    }
+
+    @Override
+    public void drawImage(Object key, Image image, int version, double x, double y, Layer layer) {
+        ImageView view = image(key, layer);
+        if (view.getImage() != image) view.setImage(image);
+        view.setViewport(null);
+        view.setX(x); view.setY(y);
+        view.setRotate(0);
+    }
+
+    @Override
+    public void drawText(Object key, String text, double x, double y, Font font, Paint fill, Layer layer) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            Text node = freeTexts.isEmpty() ? new Text() : freeTexts.pop();
+            node.setTextOrigin(VPos.TOP);
+            entry = add(key, node);
+        }
+        Text node = (Text) entry.node;
+        node.setText(text);
+        node.setFont(font);
+        node.setFill(fill);
+        node.setX(x); node.setY(y);
+        nodes.show(node, layer);
+        entry.frame = frame;
+    }
+
+    /**
+     * Hides the nodes of the objects that weren't drawn during this frame (they are kept for new objects)
+     */
+    @Override
+    public void endFrame() {
+        int kept = 0;
+        for (int i = 0; i < shown.size(); i++) {
+            Entry entry = shown.get(i);
+            if (entry.frame == frame) {
+                shown.set(kept++, entry);
+            } else {
+                nodes.hide(entry.node);
+                entries.remove(entry.key);
+                if (entry.node instanceof ImageView) freeImages.push((ImageView) entry.node);
+                else freeTexts.push((Text) entry.node);
+            }
+        }
+        while (shown.size() > kept) shown.remove(shown.size() - 1);
+    }
+
+    /**
+     * Returns the image node of the object, creating one if the object wasn't drawn during the previous frame
+     */
+    private ImageView image(Object key, Layer layer) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = add(key, freeImages.isEmpty() ? new ImageView() : freeImages.pop());
+        }
+        nodes.show(entry.node, layer);
+        entry.frame = frame;
+        return (ImageView) entry.node;
+    }
+
+    private Entry add(Object key, Node node) {
+        Entry entry = new Entry();
+        entry.key = key;
+        entry.node = node;
+        entries.put(key, entry);
+        shown.add(entry);
+        return entry;
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * @File: Scenery.java
+ * @Author: Abhi Gupta
+ * @Description: This class renders everything that is drawn on the canvas, the clouds and the background. Only the clouds move, so
+ *               after the first frame only the horizontal bands that the clouds pass through are cleared and drawn again, while the
+ *               rest of the canvas is left untouched.
+ */
+
+package sample;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+
+public class Scenery {
+    private final Background background = new Background();
+    private final ParallaxLayer bigClouds = new ParallaxLayer(Img.bigClouds, 70, 8);        // drawn behind the background
+    private final ParallaxLayer smallClouds = new ParallaxLayer(Img.smallClouds, 267, 15);  // drawn in front of the background
+    private final ParallaxLayer[] layers = {bigClouds, smallClouds};                       // sorted by their y-position
+
+    /**
+     * Renders the scenery on to the canvas, only redrawing the regions that have changed since the last frame. The clouds cover rows
+     * 70 to 480, so the ground below them is only drawn when the whole canvas is.
+     * @param gc the graphics context of the canvas
+     * @param time the amount of time that has past since the game began
+     */
+    public void render(GraphicsContext gc, double time) {
+        Canvas canvas = gc.getCanvas();
+        if (background.isOutOfDate(canvas)) {      // everything has to be drawn again
+            gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+            draw(gc, time);
+            return;
+        }
+        // merges the bands of the layers that overlap so that each region is only drawn once
+        double top = layers[0].getY();
+        double bottom = top + layers[0].getHeight();
+        for (int i = 1; i < layers.length; i++) {
+            if (layers[i].getY() > bottom) {
+                redraw(gc, time, top, bottom);
+                top = layers[i].getY();
+            }
+            bottom = Math.max(bottom, layers[i].getY() + layers[i].getHeight());
+        }
+        redraw(gc, time, top, bottom);
+    }
+
+    /**
+     * Clears and draws again a single horizontal band of the canvas
+     * @param top the y-position of the top of the band
+     * @param bottom the y-position of the bottom of the band
+     */
+    private void redraw(GraphicsContext gc, double time, double top, double bottom) {
+        double width = gc.getCanvas().getWidth();
+        gc.save();
+        gc.beginPath();
+        gc.rect(0, top, width, bottom - top);
+        gc.clip();
+        gc.clearRect(0, top, width, bottom - top);
+        draw(gc, time);
+        gc.restore();
+    }
+
+    /**
+     * Draws all of the layers of the scenery from back to front
+     */
+    private void draw(GraphicsContext gc, double time) {
+        bigClouds.draw(gc, time);
+        background.draw(gc);
+        smallClouds.draw(gc, time);
+    }
+}
@@ -2,97 +2,65 @@
  * @File: ScoreKeeper.java
  * @Author: Abhi Gupta
  * @Description: This class keeps track of the user's score and other related information for the duration of a single game. When a game is over,
- *               this class is also responsible for rendering the menu and providing on-screen instructions for starting a new game. The arrow keys
- *               and earned points that are displayed while playing the game are handled by this class as well.
+ *               this class provides the score that is displayed on the menu and on the score board at the bottom of the screen while
+ *               playing the game, which are drawn by WorldView.
  */
 
 package sample;
 
-import javafx.collections.ObservableList;
-import javafx.scene.Node;
-import javafx.scene.control.Label;
-import javafx.scene.paint.Color;
-import javafx.scene.text.Font;
-import javafx.scene.text.FontWeight;
-
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
 
 public class ScoreKeeper {
     private int level = 1;
     private int score = 0;
-    private Key keyRight;
-    private Key keyLeft;
-    private Label text;
-    private Label menuText;
-    private int textInitialY;
-    private int textInitialX = 180;
-    private boolean case2 = false; private boolean case3 = false; // these are special cases to center the text when it is certain characters long
-    private int count = 0;
+    private boolean boardVisible = false;   // whether or not the score board is displayed (from the start of a game until the next one)
+    private final static int ROLL_UP = 8;   // the number of steps between each point that is added to the score
+    private final TimerWheel timers;
+    private final int rollUpTimer;          // adds the next point of the score that is being rolled up
+    private long start = 0;                 // the time the game started (points are added every ROLL_UP steps from then)
     private int scoreToBeAdded = 0;
     private boolean alreadySet = false;
 
-    public ScoreKeeper() {
-        keyRight = new Key(Keyboard.RIGHT, 310, 575);
-        keyLeft = new Key(Keyboard.LEFT, 25, 575);
-        text = new Label(""+score);
-        textInitialY = 547;
-        text.setLayoutX(textInitialX);
-        text.setLayoutY(textInitialY);
-        text.setFont(Font.font("Comic Sans MS",FontWeight.BOLD,70));
-        text.setTextFill(Colour.semiWhite);
-
-        menuText = new Label(""+score);
-        if (menuText.getText().length() == 1)
-            menuText.setLayoutX(190);
-        else
-            menuText.setLayoutX(190-14);
-        menuText.setLayoutY(302);
-        menuText.setFont(Font.font("Comic Sans MS",FontWeight.BOLD,40));
-        menuText.setTextFill(Color.WHITE);
-
-    }
-
-    public void renderScoreBoard(ObservableList<Node> children, ArrayList<String> input, double offset) {
-        incrementScore();
-        renderText(children, offset);
-        keyRight.render(children,input,offset);
-        keyLeft.render(children,input,offset);
+    /**
+     * Constructor
+     * @param timers the timers of the world
+     */
+    public ScoreKeeper(TimerWheel timers) {
+        this.timers = timers;
+        rollUpTimer = timers.register(this::incrementScore);
     }
 
     private void incrementScore() {
-        count++;
-        if (count % 8 == 0 && scoreToBeAdded > 0) {
-            score++;
-            scoreToBeAdded--;
-        } if (scoreToBeAdded == 0) alreadySet = false;
+        score++;
+        scoreToBeAdded--;
+        if (scoreToBeAdded == 0) alreadySet = false;
+        else timers.schedule(rollUpTimer, ROLL_UP);
     }
 
     public void upLevel() { level++; }
 
-    public void renderText(ObservableList<Node> children, double offset) {
-        if (children.contains(text)) children.remove(text);
-        text.setLayoutY(textInitialY-offset);
-        String score = this.score+"";
-        text.setText(score);
-        if (score.length() == 2 && !case2) {
-            text.setLayoutX(textInitialX-26);
-            case2 = true;
-        } else if (score.length() == 3 && !case3) {
-//            text.setFont(Font.font("Comic Sans MS",FontWeight.BOLD,65));
-            text.setLayoutX(textInitialX-48);
-            case3 = true;
-        }
-        children.add(text);
-    }
-
+    /**
+     * Rolls up the score by the specified amount, one point at a time (ignored while the score is still being rolled up)
+     */
     public void upScore(int amount) {
-        if (!alreadySet) {
+        if (!alreadySet && amount > 0) {
             scoreToBeAdded = amount;
             alreadySet = true;
+            timers.schedule(rollUpTimer, ROLL_UP - (timers.getTime() - start) % ROLL_UP);
         }
+    }
 
+    /**
+     * Stops rolling up the score, it is left as it is while the menu is displayed
+     */
+    public void stop() {
+        timers.cancel(rollUpTimer);
     }
 
+    public int getScore() { return score; }
+
+    public int getLevel() { return level; }
+
     public boolean isWinner() {
         return level == 5;
     }
@@ -100,43 +68,33 @@ public class ScoreKeeper {
     public void newGame() {
         level = 1;
         score = 0;
-        case2 = false; case3 = false;
-        count = 0;
+        boardVisible = true;
+        start = timers.getTime();
         scoreToBeAdded = 0;
         alreadySet = false;
-        text = new Label(""+score);
-        text.setLayoutX(textInitialX);
-        text.setLayoutY(textInitialY);
-        text.setFont(Font.font("Comic Sans MS",FontWeight.BOLD,70));
-        text.setTextFill(Colour.semiWhite);
+        stop();
+    }
 
-        menuText = new Label(""+score);
-        if (menuText.getText().length() == 1)
-            menuText.setLayoutX(190);
-        else
-            menuText.setLayoutX(190-14);
-        menuText.setLayoutY(302);
-        menuText.setFont(Font.font("Comic Sans MS",FontWeight.BOLD,40));
-        menuText.setTextFill(Color.WHITE);
+    /**
+     * Records the score into the snapshot that is drawn
+     */
+    public void capture(Snapshot snapshot) {
+        snapshot.boardVisible = boardVisible;
+        snapshot.score = score;
     }
 
-    public void removeBoardFromGraph(ObservableList<Node> children) {
-        keyLeft.hide(children);
-        keyRight.hide(children);
-        if (children.contains(text))
-            children.remove(text);
-        if (children.contains(menuText)) {
-            children.remove(menuText);
-        }
+    public void save(ByteBuffer buffer) {
+        buffer.putInt(level).putInt(score).putLong(start).putInt(scoreToBeAdded);
+        buffer.put((byte) ((boardVisible ? 1 : 0) | (alreadySet ? 2 : 0)));
     }
 
-    public void displayScore(ObservableList<Node> children) {
-        menuText.setText(score+"");
-        if (menuText.getText().length() == 1)
-            menuText.setLayoutX(190);
-        else
-            menuText.setLayoutX(190-14);
-        if (!children.contains(menuText))
-            children.add(menuText);
+    public void restore(ByteBuffer buffer) {
+        level = buffer.getInt();
+        score = buffer.getInt();
+        start = buffer.getLong();
+        scoreToBeAdded = buffer.getInt();
+        int flags = buffer.get();
+        boardVisible = (flags & 1) != 0;
+        alreadySet = (flags & 2) != 0;
     }
 }
@@ -0,0 +1,115 @@
+/**
+ * @File: SettledLog.java
+ * @Author: Abhi Gupta
+ * @Description: This class records the boxes that have come to rest, in the order they settled. It belongs to the simulation, which
+ *               copies it into every snapshot so that the JavaFX Application Thread can bake the boxes it hasn't seen yet into the cached
+ *               images of their rows. Boxes that have scrolled off the bottom of the screen are dropped from the front of the log.
+ */
+
+package sample;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class SettledLog {
+    private double[] x = new double[64];
+    private double[] y = new double[64];            // the y-position of the row the box settled in
+    private Texture[] textures = new Texture[64];
+    private int[] rotations = new int[64];
+    private int count = 0;          // the number of boxes in the log
+    private int first = 0;          // the number of the first box in the log (counted since the start of the game)
+    private int game = 0;           // changes every time the log is cleared
+
+    /**
+     * Records a box that has come to rest, after which the box is no longer drawn on its own
+     * @param box the box that has settled
+     */
+    public void add(Box box) {
+        if (count == x.length) {
+            x = Arrays.copyOf(x, count * 2);
+            y = Arrays.copyOf(y, count * 2);
+            textures = Arrays.copyOf(textures, count * 2);
+            rotations = Arrays.copyOf(rotations, count * 2);
+        }
+        x[count] = box.getX();
+        y[count] = box.getSTOP();
+        textures[count] = box.getImage();
+        rotations[count] = box.getRotation();
+        count++;
+        box.settle();
+    }
+
+    /**
+     * Drops the boxes at the front of the log that are below the specified y-position
+     * @param bottom the y-position of the bottom of the screen in the world
+     */
+    public void cullBelow(double bottom) {
+        int culled = 0;
+        while (culled < count && y[culled] >= bottom) culled++;
+        if (culled == 0) return;
+        count -= culled;
+        System.arraycopy(x, culled, x, 0, count);
+        System.arraycopy(y, culled, y, 0, count);
+        System.arraycopy(textures, culled, textures, 0, count);
+        System.arraycopy(rotations, culled, rotations, 0, count);
+        Arrays.fill(textures, count, count + culled, null);
+        first += culled;
+    }
+
+    /**
+     * Discards all of the boxes at the start of a new game
+     */
+    public void clear() {
+        Arrays.fill(textures, 0, count, null);
+        count = 0;
+        first = 0;
+        game++;
+    }
+
+    /**
+     * Writes the log into a buffer
+     */
+    public void save(ByteBuffer buffer) {
+        buffer.putInt(game).putInt(first).putInt(count);
+        for (int i = 0; i < count; i++) {
+            buffer.putDouble(x[i]).putDouble(y[i]).putInt(rotations[i]).put((byte) (textures[i] == Img.darkBox ? 1 : 0));
+        }
+    }
+
+    /**
+     * Reads the log back from a buffer written by save (only allocates when the log holds more boxes than ever before)
+     */
+    public void restore(ByteBuffer buffer) {
+        game = buffer.getInt();
+        first = buffer.getInt();
+        int restored = buffer.getInt();
+        Arrays.fill(textures, 0, count, null);
+        if (restored > x.length) {
+            x = new double[restored];
+            y = new double[restored];
+            textures = new Texture[restored];
+            rotations = new int[restored];
+        }
+        count = restored;
+        for (int i = 0; i < count; i++) {
+            x[i] = buffer.getDouble();
+            y[i] = buffer.getDouble();
+            rotations[i] = buffer.getInt();
+            textures[i] = buffer.get() != 0 ? Img.darkBox : Img.lightBox;
+        }
+    }
+
+    /**
+     * Copies the log into a snapshot
+     */
+    public void capture(Snapshot snapshot) {
+        snapshot.ensureSettled(count);
+        snapshot.settledGame = game;
+        snapshot.settledFirst = first;
+        snapshot.settledTotal = first + count;
+        System.arraycopy(x, 0, snapshot.settledX, 0, count);
+        System.arraycopy(y, 0, snapshot.settledY, 0, count);
+        System.arraycopy(textures, 0, snapshot.settledTexture, 0, count);
+        System.arraycopy(rotations, 0, snapshot.settledRotation, 0, count);
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * @File: Snapshot.java
+ * @Author: Abhi Gupta
+ * @Description: This class holds everything that is needed to draw a single step of the game. The simulation thread fills in a snapshot
+ *               at the end of every step and publishes it through a triple buffer, after which it is only read by the JavaFX Application
+ *               Thread. The three snapshots are allocated once, and their arrays are only reallocated when more boxes have settled than
+ *               they can hold. Positions are recorded both at the end of the previous step and the current one so that they can be
+ *               interpolated when drawn.
+ */
+
+package sample;
+
+public class Snapshot {
+    public long stamp;                      // when the step was finished (System.nanoTime)
+    public double time;                     // the amount of simulation time that has progressed since the game began
+    public double previousCameraY;
+    public double cameraY;
+    public int keys;                        // the keys that were held down during the step
+    public boolean gameStarted;
+    public boolean menu = true;             // whether or not the menu is displayed (after winning or losing)
+
+    // Bird
+    public boolean birdVisible;
+    public double birdPreviousX, birdPreviousY, birdX, birdY;
+    public Texture birdTexture;
+    public int birdRotation;
+
+    // Falling boxes (one slot per column)
+    public boolean[] boxVisible = new boolean[0];
+    public double[] boxPreviousX = new double[0], boxPreviousY = new double[0], boxX = new double[0], boxY = new double[0];
+    public Texture[] boxTexture = new Texture[0];
+    public int[] boxRotation = new int[0];
+
+    // Settled boxes, numbered in the order they settled since the start of the game (the entries hold boxes settledFirst to settledTotal - 1)
+    public int settledGame;                 // changes every time a new game is started
+    public int settledFirst;
+    public int settledTotal;
+    public double[] settledX = new double[0], settledY = new double[0];
+    public Texture[] settledTexture = new Texture[0];
+    public int[] settledRotation = new int[0];
+
+    // HUD
+    public boolean boardVisible;
+    public int score;
+    public boolean signsVisible;
+    public boolean flicker;
+    public boolean[] signs = new boolean[0];
+    public int[] signHeights = new int[0];  // the number of boxes stacked up under each sign, where the box it warns of will land
+
+    /**
+     * Makes sure there is room for the specified number of falling boxes and caution signs
+     */
+    public void ensureColumns(int columns) {
+        if (boxVisible.length >= columns) return;
+        boxVisible = new boolean[columns];
+        boxPreviousX = new double[columns];
+        boxPreviousY = new double[columns];
+        boxX = new double[columns];
+        boxY = new double[columns];
+        boxTexture = new Texture[columns];
+        boxRotation = new int[columns];
+        signs = new boolean[columns];
+        signHeights = new int[columns];
+    }
+
+    /**
+     * Makes sure there is room for the specified number of settled boxes
+     */
+    public void ensureSettled(int count) {
+        if (settledX.length >= count) return;
+        int capacity = Math.max(count, settledX.length * 2);
+        settledX = new double[capacity];
+        settledY = new double[capacity];
+        settledTexture = new Texture[capacity];
+        settledRotation = new int[capacity];
+    }
+}
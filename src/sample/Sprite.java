@@ -2,24 +2,25 @@
  * @File: Sprite.java
  * @Author: Abhi Gupta
  * @Description: This class contains all of the basics properties and methods to move, animate and render a sprite on to the screen
- *               via a scene graph or GraphicsContext. Every moving object in the game at its core is a sprite despite lacking some
- *               of the animations.
+ *               through the renderer, whichever backend it uses. Every moving object in the game at its core is a sprite despite
+ *               lacking some of the animations.
  */
 
 package sample;
 
-import javafx.scene.image.Image;
-import javafx.scene.canvas.GraphicsContext;
-import javafx.geometry.Rectangle2D;
+import java.nio.ByteBuffer;
 
 public class Sprite {
-    protected Image image;
-    protected double positionX;
-    protected double positionY;
-    protected double velocityX;
-    protected double velocityY;
-    protected double width;
-    protected double height;
+    protected Texture image;
+    // Positions, velocities and sizes are in 16.16 fixed-point (see Fixed), the positions are longs as the world keeps growing upwards
+    protected long positionX;
+    protected long positionY;
+    protected long previousX;       // the position at the end of the previous step (to interpolate between steps when drawing)
+    protected long previousY;
+    protected int velocityX;
+    protected int velocityY;
+    protected int width;
+    protected int height;
 
     /**
      * Constructor - creates a new sprite with no velocity and set at (0,0) by default
@@ -31,52 +32,91 @@ public class Sprite {
         velocityY = 0;
     }
 
-    public void setImage(Image i) {
+    public void setImage(Texture i) {
         image = i;
-        width = i.getWidth();
-        height = i.getHeight();
+        width = Fixed.of((int) i.getWidth());
+        height = Fixed.of((int) i.getHeight());
     }
 
-    public void setImage(String filename) {
-        Image i = new Image(filename);
-        setImage(i);
+    /**
+     * Moves the sprite to the specified position right away (without being interpolated from where it was)
+     */
+    public void setPosition(double x, double y) {
+        positionX = previousX = Fixed.position(x);
+        positionY = previousY = Fixed.position(y);
     }
 
-    public void setPosition(double x, double y) {
-        positionX = x;
-        positionY = y;
+    /**
+     * Remembers the current position as the position of the previous step, call this at the start of every step
+     */
+    public void savePosition() {
+        previousX = positionX;
+        previousY = positionY;
+    }
+
+    /**
+     * Writes the position and the velocity of the sprite into a buffer
+     */
+    public void save(ByteBuffer buffer) {
+        buffer.putLong(positionX).putLong(positionY).putLong(previousX).putLong(previousY);
+        buffer.putInt(velocityX).putInt(velocityY);
+    }
+
+    /**
+     * Reads the position and the velocity of the sprite back from a buffer written by save
+     */
+    public void restore(ByteBuffer buffer) {
+        positionX = buffer.getLong();
+        positionY = buffer.getLong();
+        previousX = buffer.getLong();
+        previousY = buffer.getLong();
+        velocityX = buffer.getInt();
+        velocityY = buffer.getInt();
     }
 
-    public void setVelocity(double x, double y) {
+    /**
+     * Sets the velocity of the sprite (in fixed-point)
+     */
+    public void setVelocity(int x, int y) {
         velocityX = x;
         velocityY = y;
     }
 
-    public void setVelocityX(double x) {velocityX = x;}
+    public void setVelocityX(int x) {velocityX = x;}
 
-    public void addVelocity(double x, double y) {
+    /**
+     * Adds to the velocity of the sprite (in fixed-point)
+     */
+    public void addVelocity(int x, int y) {
         velocityX += x;
         velocityY += y;
     }
 
     public double getX() {
-        return positionX;
+        return Fixed.toDouble(positionX);
     }
 
     public double getY() {
-        return positionY;
+        return Fixed.toDouble(positionY);
     }
 
-    public double getWidth() {return width;}
+    public double getPreviousX() { return Fixed.toDouble(previousX); }
 
-    public double getHeight() {return height;}
+    public double getPreviousY() { return Fixed.toDouble(previousY); }
+
+    public double getWidth() {return Fixed.toDouble(width);}
+
+    public double getHeight() {return Fixed.toDouble(height);}
 
     /**
-     * Updates the sprite's x and y position based on its current velocity and time (the longer the user plays the game, the faster the sprite accelerates)
+     * Updates the sprite's x and y position based on its current velocity scaled by a fraction (the longer the user plays the game,
+     * the larger the fraction and the faster the sprite accelerates). The product is taken in 64 bits and rounded towards zero.
+     * @param numerator the numerator of the fraction
+     * @param denominator the denominator of the fraction
      */
-    public void update(double time) {
-        positionX += velocityX * time;
-        positionY += velocityY * time;
+    public void update(long numerator, long denominator) {
+        positionX += (int) (velocityX * numerator / denominator);
+        positionY += (int) (velocityY * numerator / denominator);
     }
 
     /**
@@ -87,31 +127,27 @@ public class Sprite {
         positionY += velocityY;
     }
 
-    public Image getImage() { return image; }
-
-    public void render(GraphicsContext gc) {
-         gc.drawImage( image, positionX, positionY );
-    }
-
-    public Rectangle2D getBoundary() {
-        return new Rectangle2D(positionX,positionY,width,height);
-    }
+    public Texture getImage() { return image; }
 
+    /**
+     * Returns whether or not the bounding boxes of this sprite and the specified one overlap
+     */
     public boolean intersects(Sprite s) {
-        return s.getBoundary().intersects( this.getBoundary() );
+        return s.positionX < positionX + width && positionX < s.positionX + s.width
+                && s.positionY < positionY + height && positionY < s.positionY + s.height;
     }
 
     public String toString() {
-        return " Position: [" + positionX + "," + positionY + "]"
-                + " Velocity: [" + velocityX + "," + velocityY + "]";
+        return " Position: [" + getX() + "," + getY() + "]"
+                + " Velocity: [" + Fixed.toDouble(velocityX) + "," + Fixed.toDouble(velocityY) + "]";
     }
 
     /**
      * Resets the sprite's variables
      */
     public void newGame() {
-        positionX = 0;
-        positionY = 0;
+        positionX = previousX = 0;
+        positionY = previousY = 0;
         velocityX = 0;
         velocityY = 0;
     }
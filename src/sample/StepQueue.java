@@ -0,0 +1,124 @@
+/**
+ * @File: StepQueue.java
+ * @Author: Abhi Gupta
+ * @Description: This class is a priority queue of the things that are due at a known step of the simulation (such as a falling box
+ *               landing), so that they can be handled when that step comes instead of being checked every step. The ids are numbered
+ *               from 0, each id is queued at most once, and the queue is a binary heap in arrays allocated up front. Ids that are due
+ *               at the same step come out in the order of their ids, so the simulation stays deterministic.
+ */
+
+package sample;
+
+import java.util.Arrays;
+
+public class StepQueue {
+    private final static int NONE = -1;
+
+    private final long[] steps;         // the step each id is due at
+    private final int[] heap;           // the queued ids, each one due no earlier than its parent
+    private final int[] positions;      // where each id is in the heap (NONE when it isn't queued)
+    private int size = 0;
+
+    /**
+     * Constructor
+     * @param capacity the number of ids (0 to capacity - 1)
+     */
+    public StepQueue(int capacity) {
+        steps = new long[capacity];
+        heap = new int[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, NONE);
+    }
+
+    /**
+     * Queues an id to be due at a step, an id that is already queued is moved
+     */
+    public void schedule(int id, long step) {
+        if (positions[id] == NONE) {
+            positions[id] = size;
+            heap[size++] = id;
+        }
+        steps[id] = step;
+        siftDown(siftUp(positions[id]));
+    }
+
+    /**
+     * Removes an id from the queue (nothing happens if it isn't queued)
+     */
+    public void cancel(int id) {
+        int position = positions[id];
+        if (position == NONE) return;
+        positions[id] = NONE;
+        int last = heap[--size];
+        if (position < size) {
+            place(last, position);
+            siftDown(siftUp(position));
+        }
+    }
+
+    public boolean isQueued(int id) { return positions[id] != NONE; }
+
+    public boolean isEmpty() { return size == 0; }
+
+    /**
+     * Returns the step the first id is due at (Long.MAX_VALUE when the queue is empty)
+     */
+    public long peekStep() {
+        return size == 0 ? Long.MAX_VALUE : steps[heap[0]];
+    }
+
+    /**
+     * Removes and returns the id that is due first
+     */
+    public int poll() {
+        int id = heap[0];
+        cancel(id);
+        return id;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) positions[heap[i]] = NONE;
+        size = 0;
+    }
+
+    private boolean before(int a, int b) {
+        return steps[a] < steps[b] || steps[a] == steps[b] && a < b;
+    }
+
+    private void place(int id, int position) {
+        heap[position] = id;
+        positions[id] = position;
+    }
+
+    /**
+     * Moves the id at a position up towards the root until its parent is due before it
+     * @return the position the id ended up at
+     */
+    private int siftUp(int position) {
+        int id = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (!before(id, heap[parent])) break;
+            place(heap[parent], position);
+            position = parent;
+        }
+        place(id, position);
+        return position;
+    }
+
+    /**
+     * Moves the id at a position down until it is due before its children
+     */
+    private void siftDown(int position) {
+        int id = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) break;
+            if (child + 1 < size && before(heap[child + 1], heap[child])) child++;
+            if (!before(heap[child], id)) break;
+            place(heap[child], position);
+            position = child;
+        }
+        place(id, position);
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * @File: Swept.java
+ * @Author: Abhi Gupta
+ * @Description: Collision tests between boxes that move in a straight line over a step (swept axis-aligned bounding boxes). Looking at
+ *               where two sprites are at the end of a step misses them passing through each other during the step when they move fast,
+ *               so instead the times at which they touch on each axis are worked out from their relative motion, and they collide if
+ *               those times overlap within the step.
+ */
+
+package sample;
+
+public final class Swept {
+    public final static double NEVER = Double.POSITIVE_INFINITY;      // the time returned when the boxes don't touch during the step
+
+    private Swept() {}
+
+    /**
+     * Returns the first time during a step (0 at its start, 1 at its end) at which two boxes touch or overlap, or NEVER. Each box moves
+     * in a straight line from where it is at the start of the step to where it is at the end of it.
+     * @param ax0 the left of the first box at the start of the step
+     * @param ay0 the top of the first box at the start of the step
+     * @param ax1 the left of the first box at the end of the step
+     * @param ay1 the top of the first box at the end of the step
+     * @param aWidth the width of the first box
+     * @param aHeight the height of the first box
+     * @param bx0 the left of the second box at the start of the step (and so on)
+     */
+    public static double time(double ax0, double ay0, double ax1, double ay1, double aWidth, double aHeight,
+                              double bx0, double by0, double bx1, double by1, double bWidth, double bHeight) {
+        double enter = Math.max(0, Math.max(enter(ax0, ax1, aWidth, bx0, bx1, bWidth), enter(ay0, ay1, aHeight, by0, by1, bHeight)));
+        double leave = Math.min(1, Math.min(leave(ax0, ax1, aWidth, bx0, bx1, bWidth), leave(ay0, ay1, aHeight, by0, by1, bHeight)));
+        return enter <= leave ? enter : NEVER;
+    }
+
+    /**
+     * Returns when the spans of two boxes on an axis start to touch, as the second one moves relative to the first
+     * (-infinity if they always touch, NEVER if they never do)
+     */
+    private static double enter(double a0, double a1, double aSize, double b0, double b1, double bSize) {
+        double d = b0 - a0;                     // where the second box starts relative to the first
+        double v = (b1 - b0) - (a1 - a0);       // how far it moves relative to the first over the step
+        if (v == 0) return d >= -bSize && d <= aSize ? Double.NEGATIVE_INFINITY : NEVER;
+        return Math.min((-bSize - d) / v, (aSize - d) / v);
+    }
+
+    /**
+     * Returns when the spans of two boxes on an axis stop touching (infinity if they always touch, -infinity if they never do)
+     */
+    private static double leave(double a0, double a1, double aSize, double b0, double b1, double bSize) {
+        double d = b0 - a0;
+        double v = (b1 - b0) - (a1 - a0);
+        if (v == 0) return d >= -bSize && d <= aSize ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+        return Math.max((-bSize - d) / v, (aSize - d) / v);
+    }
+}
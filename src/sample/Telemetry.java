@@ -0,0 +1,41 @@
+/**
+ * @File: Telemetry.java
+ * @Author: Abhi Gupta
+ * @Description: This class subscribes to the events of the game and counts them, so that runs can be compared by more than their scores
+ *               (how many boxes landed, how many rows filled up and so on). It reads the events on whichever thread it is updated from.
+ */
+
+package sample;
+
+public class Telemetry {
+    private final GameEvents events;
+    private final GameEvents.Cursor cursor;
+    private final long[] counts = new long[GameEvents.TYPES];
+
+    public Telemetry(GameEvents events) {
+        this.events = events;
+        cursor = events.subscribe();
+    }
+
+    /**
+     * Counts the events that were published since the last update
+     * @return whether or not a game ended in the meantime
+     */
+    public boolean update() {
+        boolean gameOver = false;
+        while (events.poll(cursor)) {
+            counts[cursor.type]++;
+            if (cursor.type == GameEvents.GAME_OVER) gameOver = true;
+        }
+        return gameOver;
+    }
+
+    public long count(int type) { return counts[type]; }
+
+    public String toString() {
+        return String.format("boxes landed: %d, rows completed: %d, level ups: %d, birds crushed: %d, games over: %d%s",
+                counts[GameEvents.BOX_LANDED], counts[GameEvents.ROW_COMPLETED], counts[GameEvents.LEVEL_UP],
+                counts[GameEvents.BIRD_CRUSHED], counts[GameEvents.GAME_OVER],
+                cursor.missed > 0 ? " (" + cursor.missed + " events missed)" : "");
+    }
+}
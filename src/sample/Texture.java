@@ -0,0 +1,99 @@
+/**
+ * @File: Texture.java
+ * @Author: Abhi Gupta
+ * @Description: This class describes a single image of the game as a rectangular region (viewport) of the texture atlas. All of the
+ *               textures of a page share the same atlas image, so nodes and the canvas only have to upload a few images to the graphics
+ *               card. The atlas image is handed to the texture once its page has been decoded by the AssetLoader.
+ */
+
+package sample;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+
+public class Texture {
+    private final String page;              // the page of the atlas that contains this texture
+    private volatile Image atlas;           // the image of the page, null until the page has been loaded
+    private final int x;                    // the region of the atlas covered by this texture
+    private final int y;
+    private final int width;
+    private final int height;
+    private Rectangle2D viewport;           // the same region, only created once the texture is displayed (the game model can run without JavaFX)
+
+    /**
+     * Constructor
+     * @param page the page of the atlas that contains this texture
+     * @param x the x-position of the texture in the atlas
+     * @param y the y-position of the texture in the atlas
+     * @param width the width of the texture
+     * @param height the height of the texture
+     */
+    public Texture(String page, int x, int y, int width, int height) {
+        this.page = page;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    public String getPage() { return page; }
+
+    public Image getAtlas() { return atlas; }
+
+    /**
+     * Provides the decoded image of the texture's page
+     */
+    public void setAtlas(Image atlas) { this.atlas = atlas; }
+
+    /**
+     * Returns whether or not the page of the texture has been loaded (a texture can't be displayed before then)
+     */
+    public boolean isLoaded() { return atlas != null; }
+
+    public Rectangle2D getViewport() {
+        if (viewport == null) viewport = new Rectangle2D(x, y, width, height);
+        return viewport;
+    }
+
+    public double getWidth() { return width; }
+
+    public double getHeight() { return height; }
+
+    /**
+     * Returns a new node that displays this texture
+     */
+    public ImageView createView() {
+        ImageView view = new ImageView();
+        applyTo(view);
+        return view;
+    }
+
+    /**
+     * Changes the node to display this texture instead of the one it was displaying
+     * @param view the node displaying a texture of the atlas
+     */
+    public void applyTo(ImageView view) {
+        if (view.getImage() != atlas) view.setImage(atlas);
+        view.setViewport(getViewport());
+    }
+
+    /**
+     * Draws the texture on to the canvas at the specified position
+     */
+    public void draw(GraphicsContext gc, double x, double y) {
+        gc.drawImage(atlas, this.x, this.y, width, height, x, y, width, height);
+    }
+
+    /**
+     * Copies the top-left corner of the texture into a buffer of ARGB pixels
+     * @param pixels the buffer the pixels are copied into
+     * @param width the number of columns to be copied (at most the width of the texture)
+     * @param height the number of rows to be copied (at most the height of the texture)
+     */
+    public void readPixels(int[] pixels, int width, int height) {
+        atlas.getPixelReader().getPixels(this.x, this.y, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * @File: TimerWheel.java
+ * @Author: Abhi Gupta
+ * @Description: This class runs the timers of the game in simulation time (counted in steps) on a hierarchical timing wheel. Each of the
+ *               four levels has 64 slots, a level covers 64 times the span of the one below it, and a timer sits in the slot of the
+ *               highest digit in which its deadline differs from the current step. Scheduling and cancelling a timer is O(1), and
+ *               advancing a step only looks at a single slot (a slot of a higher level is only moved down into the lower levels once
+ *               every 64 steps, 4096 steps and so on). The timers are registered once, when the world is created, and are linked
+ *               into the slots through arrays so that nothing is allocated while the game is running.
+ */
+
+package sample;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class TimerWheel {
+    private final static int BITS = 6;                      // 64 slots per level
+    private final static int SLOTS = 1 << BITS;
+    private final static int LEVELS = 4;                    // the levels cover 2^24 steps (about three days) before the overflow list
+    private final static int OVERFLOW = LEVELS * SLOTS;     // the list of timers past the last level
+    private final static int NONE = -1;
+
+    private long time = 0;                                  // the current step
+    private int[] heads = new int[OVERFLOW + 1];            // the first timer in each slot
+    private int count = 0;                                  // the number of registered timers
+    private Runnable[] callbacks = new Runnable[8];
+    private long[] deadlines = new long[8];
+    private int[] slots = new int[8];                       // the slot each timer is in (NONE when it isn't scheduled)
+    private int[] next = new int[8];
+    private int[] previous = new int[8];
+
+    /**
+     * Constructor - creates a wheel with no timers at step 0
+     */
+    public TimerWheel() {
+        Arrays.fill(heads, NONE);
+    }
+
+    /**
+     * Adds a timer to the wheel (timers are registered while the world is being created, and in the same order every time)
+     * @param callback what is run when the timer expires
+     * @return the timer, used to schedule and cancel it
+     */
+    public int register(Runnable callback) {
+        if (count == callbacks.length) {
+            callbacks = Arrays.copyOf(callbacks, count * 2);
+            deadlines = Arrays.copyOf(deadlines, count * 2);
+            slots = Arrays.copyOf(slots, count * 2);
+            next = Arrays.copyOf(next, count * 2);
+            previous = Arrays.copyOf(previous, count * 2);
+        }
+        callbacks[count] = callback;
+        slots[count] = NONE;
+        return count++;
+    }
+
+    /**
+     * Returns the current step (the number of steps the wheel has been advanced by)
+     */
+    public long getTime() { return time; }
+
+    /**
+     * Schedules a timer to run at the start of a later step, a timer that is already scheduled is moved
+     * @param timer the timer
+     * @param delay the number of steps after the current one (at least 1)
+     */
+    public void schedule(int timer, long delay) {
+        if (delay < 1)
+            throw new IllegalArgumentException("A timer can't be scheduled " + delay + " steps ahead");
+        cancel(timer);
+        deadlines[timer] = time + delay;
+        insert(timer);
+    }
+
+    /**
+     * Stops a timer from running (nothing happens if it isn't scheduled)
+     */
+    public void cancel(int timer) {
+        if (slots[timer] != NONE) unlink(timer);
+    }
+
+    public boolean isScheduled(int timer) { return slots[timer] != NONE; }
+
+    /**
+     * Returns the number of steps before a timer runs (0 if it isn't scheduled)
+     */
+    public long remaining(int timer) {
+        return slots[timer] == NONE ? 0 : deadlines[timer] - time;
+    }
+
+    /**
+     * Moves on to the next step and runs every timer that expires at it
+     */
+    public void advance() {
+        time++;
+        if ((time & ((1L << (BITS * LEVELS)) - 1)) == 0) cascade(OVERFLOW);
+        for (int level = LEVELS - 1; level > 0; level--) {       // the slots of higher levels are moved down when the lower digits wrap
+            if ((time & ((1L << (BITS * level)) - 1)) == 0) cascade(level * SLOTS + digit(time, level));
+        }
+        int slot = digit(time, 0);
+        int timer;
+        while ((timer = heads[slot]) != NONE) {    // a callback may schedule timers again, but never into the slot being run
+            unlink(timer);
+            callbacks[timer].run();
+        }
+    }
+
+    /**
+     * Cancels every timer (the time isn't changed)
+     */
+    public void clear() {
+        for (int timer = 0; timer < count; timer++) cancel(timer);
+    }
+
+    /**
+     * Writes the time and the deadline of every timer into a buffer
+     */
+    public void save(ByteBuffer buffer) {
+        buffer.putLong(time).putInt(count);
+        for (int timer = 0; timer < count; timer++) {
+            buffer.putLong(slots[timer] == NONE ? NONE : deadlines[timer]);
+        }
+    }
+
+    /**
+     * Reads the time and the timers back from a buffer written by save, the same timers have to have been registered
+     */
+    public void restore(ByteBuffer buffer) {
+        clear();
+        time = buffer.getLong();
+        int saved = buffer.getInt();
+        if (saved != count)
+            throw new IllegalArgumentException(saved + " timers were saved (expected " + count + ")");
+        for (int timer = 0; timer < count; timer++) {
+            long deadline = buffer.getLong();
+            if (deadline != NONE) {
+                deadlines[timer] = deadline;
+                insert(timer);
+            }
+        }
+    }
+
+    /**
+     * Puts a timer into the slot of the highest digit in which its deadline differs from the current step
+     */
+    private void insert(int timer) {
+        long deadline = deadlines[timer];
+        long difference = deadline ^ time;
+        int level = difference == 0 ? 0 : (63 - Long.numberOfLeadingZeros(difference)) / BITS;
+        int slot = level < LEVELS ? level * SLOTS + digit(deadline, level) : OVERFLOW;
+        slots[timer] = slot;
+        previous[timer] = NONE;
+        next[timer] = heads[slot];
+        if (heads[slot] != NONE) previous[heads[slot]] = timer;
+        heads[slot] = timer;
+    }
+
+    private void unlink(int timer) {
+        int slot = slots[timer];
+        if (previous[timer] != NONE) next[previous[timer]] = next[timer];
+        else heads[slot] = next[timer];
+        if (next[timer] != NONE) previous[next[timer]] = previous[timer];
+        slots[timer] = NONE;
+    }
+
+    /**
+     * Moves every timer of a slot into the lower levels (their deadlines are now closer to the current step)
+     */
+    private void cascade(int slot) {
+        int timer = heads[slot];
+        heads[slot] = NONE;
+        while (timer != NONE) {
+            int following = next[timer];
+            insert(timer);
+            timer = following;
+        }
+    }
+
+    private static int digit(long step, int level) {
+        return (int) (step >>> (BITS * level)) & (SLOTS - 1);
+    }
+}
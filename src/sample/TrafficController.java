@@ -7,65 +7,97 @@
 
 package sample;
 
-import javafx.collections.ObservableList;
-import javafx.scene.Node;
+import java.nio.ByteBuffer;
 
 public class TrafficController {
     // Warning Signs
     private final int NUM_OF_BOXES;
-    private WarningSign[] warningSigns;
-    private int counter = 0;    // delay time between each flicker
+    private final static int SIGN_DELAY = 50;   // the delay before the caution signs are displayed once the boxes have landed
+    private final static int FIRST_DELAY = 300; // the number of steps before the caution signs are first displayed
+    private final static int FLICKER = 15;      // the number of steps between each flicker
+    private final TimerWheel timers;
+    private final int delayTimer;               // displays the caution signs
+    private final int flickerTimer;             // alternates the two images of each sign
     private boolean flicker = false;
+    private boolean visible = false;        // whether or not the caution signs are being displayed
+    private long delayLeft = FIRST_DELAY;   // the steps that were left before displaying the signs when the last game ended
 
 
-    public TrafficController(int boxes) {
+    public TrafficController(int boxes, TimerWheel timers) {
         // boxes is the number of boxes that can fit in a single row (8)
         NUM_OF_BOXES = boxes;
-        warningSigns = new WarningSign[NUM_OF_BOXES];
-        // creates the number of sign as the number of boxes
-        for (int i = 0; i < NUM_OF_BOXES; i++)
-            warningSigns[i] = new WarningSign(i*50-2,0);
+        this.timers = timers;
+        delayTimer = timers.register(this::displayWarnings);
+        flickerTimer = timers.register(this::flicker);
     }
 
     /**
-     * Renders the caution signs on the screen based on what boxes are about to appear next
-     * @param signLocations each index represents whether or not a caution sign is needed at that location
-     * @param firstSetOnGround whether or not the initial set of boxes have landed
-     * @param offset the amount by which the screen has shifted vertically
+     * Hides the caution signs and displays them again SIGN_DELAY steps from now, unless this is called again before then (called
+     * whenever the boxes have landed)
      */
-    public void displayWarnings(ObservableList<Node> children, boolean[] signLocations, boolean firstSetOnGround, double offset) {
-        for (int i = 0; i < NUM_OF_BOXES; i++) {
-            if (signLocations[i]) {
-                warningSigns[i].setY(0 - offset);
-                warningSigns[i].render(children,flicker);
-            } else {
-                warningSigns[i].hide(children);
-            }
-        }
-        counter++;     // the signs render in a way so that two images for each sign are alternating every 15 counts
-        if (counter % 15 == 0) {
-            flicker = !flicker;
-        }
+    public void holdWarnings() {
+        visible = false;
+        timers.cancel(flickerTimer);
+        timers.schedule(delayTimer, SIGN_DELAY);
+    }
+
+    /**
+     * Displays the caution signs of the boxes that are about to appear next
+     */
+    private void displayWarnings() {
+        visible = true;
+        timers.schedule(flickerTimer, FLICKER - 1);    // the step the signs appear counts as the first
+    }
+
+    private void flicker() {
+        flicker = !flicker;
+        timers.schedule(flickerTimer, FLICKER);
     }
 
     /**
-     * Removes all of the caution signs from the scene graph
+     * Stops the timers of the caution signs, they are left as they are while the menu is displayed and the delay carries on
+     * into the next game
      */
-    public void hideWarnings(ObservableList<Node> children) {
-        counter = 0;
-        for (WarningSign sign : warningSigns) {
-            sign.hide(children);
+    public void stop() {
+        delayLeft = timers.remaining(delayTimer);
+        timers.cancel(delayTimer);
+        timers.cancel(flickerTimer);
+    }
+
+    /**
+     * Records the caution signs that are being displayed into the snapshot that is drawn
+     * @param signLocations each index represents whether or not a caution sign is needed at that location
+     * @param columnHeights the number of boxes stacked up in each column (read from the transporter's height map rather than
+     *                      scanning the internal map, a sign is still displayed over a column that is full)
+     */
+    public void capture(Snapshot snapshot, boolean[] signLocations, int[] columnHeights) {
+        snapshot.ensureColumns(NUM_OF_BOXES);
+        snapshot.signsVisible = visible;
+        snapshot.flicker = flicker;
+        for (int i = 0; i < NUM_OF_BOXES; i++) {
+            snapshot.signs[i] = visible && signLocations[i];
+            snapshot.signHeights[i] = snapshot.signs[i] ? columnHeights[i] : 0;
         }
     }
 
+    public void save(ByteBuffer buffer) {
+        buffer.putLong(delayLeft).put((byte) ((flicker ? 1 : 0) | (visible ? 2 : 0)));
+    }
+
+    public void restore(ByteBuffer buffer) {
+        delayLeft = buffer.getLong();
+        int flags = buffer.get();
+        flicker = (flags & 1) != 0;
+        visible = (flags & 2) != 0;
+    }
+
     /**
      * Resets all of the variables
      */
     public void newGame() {
-        counter = 0;
+        timers.cancel(flickerTimer);
         flicker = false;
-        warningSigns = new WarningSign[NUM_OF_BOXES];
-        for (int i = 0; i < NUM_OF_BOXES; i++)
-            warningSigns[i] = new WarningSign(i*50-2,0);
+        visible = false;
+        timers.schedule(delayTimer, Math.max(1, delayLeft));
     }
 }
@@ -8,13 +8,8 @@
 
 package sample;
 
-import javafx.collections.ObservableList;
-import javafx.scene.Node;
-import javafx.scene.canvas.GraphicsContext;
-
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
-import java.util.Random;
 
 public class Transporter {
     // DIMENSIONS
@@ -26,90 +21,194 @@ public class Transporter {
     private final int NUM_OF_BOXES = 8;
     private boolean countInital;
     private int boxesToBeDropped = 0;
-    private int AT_REST = 1;
+    public final static int TOP_ROW = 1;   // the boxes only stack up as high as this row of the internal map, a new stack starts once it is full
+    public final static int MAX_HEIGHT = Bitboard.SIZE - TOP_ROW;  // the number of boxes a column can be stacked up to
     private int COLUMN_OF_BOXES = NUM_OF_BOXES;
     private int stackNum = 0;
     // Boxes
     private Box[] boxes;            // the total number of boxes to be dropped in the current row (8) as Box objects
     private boolean[] nextBoxes;    // the next set of boxes to be dropped (passed in as an argument when rendering the caution signs)
-    private int[][] screen;         // internal map of the game -> 0's represent empty space whereas 1's mean a stationary box is occupying the space
+    private long screen;            // internal map of the game as a bitboard -> 0's represent empty space whereas 1's mean a stationary box is occupying the space
+    private int[] columnHeights;    // the number of boxes stacked up in each column of the internal map, updated as the boxes land
+    private long falling;           // the boxes in the air as a bitboard, by the row they are passing through (counted from the current stack)
+    private long swept;             // the rows the boxes in the air have passed through during the last step (the bird's side walls)
+    private final int[] fallingRows = new int[NUM_OF_BOXES];    // the row each box in the air was last mapped to (NOT_FALLING otherwise)
+    private final static int NOT_FALLING = Integer.MIN_VALUE;
+    private final int[] boxBounds = new int[2];     // the walls of falling boxes on either side of the bird (reused every step)
+    private final StepQueue arrivals = new StepQueue(NUM_OF_BOXES);     // the step at which each box in the air next reaches a row or lands
+    private long step = -1;             // the step the boxes were last deployed at
+    private long previousStep = -1;     // the step the boxes are drawn from (interpolated towards step)
     private int[] onGround;         // the number of boxes on the ground (1's representing no boxes and 0's representing a box)
-    private Random random = new Random();
-    private ArrayList<Box> totalBoxes = new ArrayList<Box>();
+    private int landed;             // the number of 0's in onGround, kept up to date as it changes
+    private RandomStream layout;        // decides which boxes are dropped next
+    private RandomStream rotations;     // decides which boxes are turned on their side
+    private RandomStream difficulty;    // decides which boxes are held back when a whole row would be dropped at once
+    private SettledLog settled = new SettledLog();      // the boxes that have come to rest, in the order they settled
+    private final GameEvents events;                    // where boxes landing, rows filling up and the bird being crushed are published
 
     /**
      * Constructor
      * @param canvasWidth the width of the screen
+     * @param seed the seed of the session, from which the random streams are derived
+     * @param events the events of the world
      */
-    public Transporter(double canvasWidth) {
+    public Transporter(double canvasWidth, long seed, GameEvents events) {
         CANVAS_WIDTH = canvasWidth;
+        this.events = events;
+        layout = new RandomStream(seed, RandomStream.LAYOUT);
+        rotations = new RandomStream(seed, RandomStream.ROTATION);
+        difficulty = new RandomStream(seed, RandomStream.DIFFICULTY);
         boxes = new Box[NUM_OF_BOXES];
         nextBoxes = new boolean[NUM_OF_BOXES];
         countInital = false;
         onGround = new int[NUM_OF_BOXES];
+        landed = NUM_OF_BOXES;
         for (int i = 0; i < NUM_OF_BOXES; i++) {
-            nextBoxes[i] = random.nextBoolean();
+            nextBoxes[i] = layout.nextBoolean();
         }
-        screen = new int[COLUMN_OF_BOXES][NUM_OF_BOXES];
+        screen = 0;
+        columnHeights = new int[NUM_OF_BOXES];
+        Arrays.fill(fallingRows, NOT_FALLING);
         importBoxesLinearFill(); // loads a new set of boxes to begin dropping them
     }
 
     /**
      * Deploys a series of boxes until they have all reached the ground level. When all of the boxes have been dropped to fill up an entire
      * row, new boxes are imported. This process repeats infinitely until a box eventually hits the player causing the game to end.
-     * @param children all of the nodes on the scene graph
-     * @param time the amount of time that has past since the user started playing the game
+     * Boxes landing (along with the last box of a drop landing), rows filling up and the bird being crushed are published as events.
+     * When a box is dropped, the steps at which it reaches the rows and lands are worked out and queued. The boxes aren't moved every
+     * step, the position of a box is only worked out when it is needed.
+     * @param step the number of steps that have past since the user started playing the game
      * @param player the bird that the user is operating
      * @param offset the amount by which the screen has shifted vertically
-     * @return whether or not the bird was hit by a box and died
      */
-    public boolean deploy(ObservableList<Node> children, double time, Bird player, double offset) {
-        boolean dead = false;   // the bird's initial state of well-being
+    public void deploy(long step, Bird player, double offset) {
+        this.step = step;
+        swept = falling;
         int birdIndexX = player.getMappedX(screen);
         double birdY = player.getY();
-        int boxesOnGround = sum(onGround);                      // the number of boxes on the ground
+        int boxesOnGround = landed;                             // the number of boxes on the ground
+        // The middle of the bird over the step, a box coming down on it while the bird is standing crushes the bird
+        double middle = player.getWidth() / 2;
+        double fromX = player.getPreviousX() + middle;
+        double toX = player.getX() + middle;
+        int fromColumn = (int) Math.floor(Math.min(fromX, toX) / boxWidth);
+        int toColumn = (int) Math.floor(Math.max(fromX, toX) / boxWidth);
+        int crushedBy = -1;                                     // the column of the box that came down on the bird
         for (int i = 0; i < NUM_OF_BOXES; i++) {                // when the box is ready to be dropped = prepared
-            if (boxes[i].isReady() && screen[1][i] != 1) {      //screen[1][i] limits the boxes from stacking up only as high as the screen array (7 boxes)
-                boxes[i].setDropPosition(0 - offset);           // the initial drop position is only set once despite multiple calls to the method
-                boxes[i].drop(time);                            // the box is dropped (acceleration added to y-position)
+            if (boxes[i].isReady() && columnHeights[i] < MAX_HEIGHT) {  //MAX_HEIGHT limits the boxes from stacking up only as high as the screen array (7 boxes)
+                if (!boxes[i].isDropped()) {
+                    boxes[i].drop(step, 0 - offset);            // the box is dropped from the top of the screen
+                    mapFalling(i, step);
+                }
 
                 // Response to Collision with Boxes from Above
                 if (i == birdIndexX) {
-                    player.setLowerBoundsY(boxes[i].getY() + boxWidth);
-                    // removes bird from screen by indicating box on top and bottom collided with it
-                    if (birdY <= player.getLowerBoundsY() && (int) birdY == (int) player.getUpperBoundsY())
-                        dead = true;
+                    player.setLowerBoundsY(boxes[i].getY(step) + boxWidth);
+                    if (birdY <= player.getLowerBoundsY() && crushedBy == -1) crushedBy = i;
                 }
-                boxes[i].render(children);                      // the box is rendered on to the screen after updating its y-position
+                // boxes that moved during the step are checked over the whole step, so that a fast box can't pass through the bird
+                if (crushedBy == -1 && i >= fromColumn && i <= toColumn && boxes[i].getLandingStep() >= step
+                        && Swept.time(i * boxWidth, boxes[i].getY(previousStep), i * boxWidth, boxes[i].getY(step), boxWidth, boxWidth,
+                                      fromX, player.getPreviousY(), toX, birdY, 0, player.getHeight()) != Swept.NEVER)
+                    crushedBy = i;
                 if (!countInital) boxesToBeDropped++;           // counts the number of boxes that have to be dropped in a single round / drop
-                onGround[i] = boxes[i].inMotion() ? 1 : 0;
-
-                // updates the game's internal map by finding which spots are occupied in the map when the boxes have stopped moving
-                if (!boxes[i].inMotion()) {
-                    double STOP = 400 * stackNum + boxes[i].getSTOP();
-                    int y = COLUMN_OF_BOXES - 1 - ((int) ((rowHeight - boxWidth - STOP) / boxWidth) + 1) - stackNum;
-                    screen[y][i] = AT_REST;
-                }
             }
         }
+        // removes bird from screen by indicating box on top and bottom collided with it
+        if (crushedBy != -1 && (int) birdY == (int) player.getUpperBoundsY() && player.isAlive())
+            events.publish(GameEvents.BIRD_CRUSHED, step, crushedBy, allOnGround() ? 1 : 0);
+        // the boxes that reach a new row or land at this step
+        while (arrivals.peekStep() <= step) {
+            int i = arrivals.poll();
+            if (boxes[i].getLandingStep() <= step) land(i, step);
+            else mapFalling(i, step);
+        }
         if (!countInital) countInital = true;
         if (boxesToBeDropped == boxesOnGround) {        // when the number of boxes that were loaded have been dropped, a new set of boxes
             countInital = false;                        // are loaded and the process repeats
             boxesToBeDropped = 0;
             importBoxes();
         }
-        return !dead;   // whether or not alive
+    }
+
+    /**
+     * Updates the game's internal map with a box that has landed by finding which spot in the map it is occupying
+     */
+    private void land(int i, long step) {
+        moveFalling(i, getMappedY(boxes[i].getY(step)) + MAX_HEIGHT * stackNum);   // the rows it passed on its way down are walls until the next step
+        falling &= ~(Bitboard.COLUMN << i);
+        fallingRows[i] = NOT_FALLING;
+        setOnGround(i, 0);
+        double STOP = 400 * stackNum + boxes[i].getSTOP();
+        int y = COLUMN_OF_BOXES - 1 - ((int) ((rowHeight - boxWidth - STOP) / boxWidth) + 1) - stackNum;
+        screen = Bitboard.set(screen, y, i);
+        columnHeights[i] = Math.max(columnHeights[i], Bitboard.SIZE - y);
+        if (!boxes[i].isSettled()) {
+            settled.add(boxes[i]);
+            events.publish(GameEvents.BOX_LANDED, step, i, y, allOnGround() ? landed : 0);    // the whole drop is on the ground once the last box lands
+            if (Bitboard.isRowFull(screen, y)) events.publish(GameEvents.ROW_COMPLETED, step, y, 0);
+        }
+    }
+
+    /**
+     * Maps a box in the air to the row it is passing through (counted from the current stack) and queues the step at which it reaches
+     * the next row or lands, whichever comes first. The rows above the map are passed without stopping.
+     */
+    private void mapFalling(int i, long step) {
+        int mapped = getMappedY(boxes[i].getY(step));
+        int row = mapped + MAX_HEIGHT * stackNum;
+        moveFalling(i, row);
+        long next = boxes[i].getLandingStep();
+        int rows = Math.max(1, -row);                   // the number of rows until the box is in the next row of the map
+        if (row + rows < Bitboard.SIZE && mapped + rows <= NUM_OF_BOXES - 1) {
+            double top = rowHeight + 10 - boxWidth * (NUM_OF_BOXES - mapped - rows);    // the box is in that row once it is past this y-position
+            next = Math.min(next, boxes[i].stepReaching(Fixed.position(top) + 1));
+        }
+        arrivals.schedule(i, next);
+    }
+
+    /**
+     * Moves a box in the air to a row of the map of falling boxes. A box can cross more than one row in a step, so every row from the
+     * one it was last mapped to down to this one is added to the rows swept during the step.
+     */
+    private void moveFalling(int i, int row) {
+        falling &= ~(Bitboard.COLUMN << i);
+        if (row >= 0 && row < Bitboard.SIZE) falling = Bitboard.set(falling, row, i);
+        int from = fallingRows[i] == NOT_FALLING ? row : fallingRows[i];
+        swept |= Bitboard.rows(from, row) & Bitboard.COLUMN << i;
+        fallingRows[i] = row;
+    }
+
+    /**
+     * Maps every box in the air again (when the stack or the boxes have changed) and requeues when they next reach a row or land
+     */
+    private void remapFalling() {
+        falling = 0;
+        Arrays.fill(fallingRows, NOT_FALLING);
+        arrivals.clear();
+        for (int i = 0; i < NUM_OF_BOXES; i++) {
+            if (boxes[i].isDropped() && boxes[i].getLandingStep() > step) mapFalling(i, step);
+        }
+        swept = falling;
+    }
+
+    /**
+     * Marks whether or not the box in a column is in the air (1) or on the ground (0), keeping count of the boxes on the ground
+     */
+    private void setOnGround(int i, int value) {
+        landed += onGround[i] - value;
+        onGround[i] = value;
     }
 
     private void importBoxesOriginal() {
         for (int i = 0; i < NUM_OF_BOXES; i++) {
             if (onGround[i] == 0) {
-                totalBoxes.add(boxes[i]);
-                boxes[i] = new Box(i * (int) (CANVAS_WIDTH / NUM_OF_BOXES) + PADDING, 0, boxes[i].getSTOP() - 50, i % 2 == 0);
+                boxes[i] = new Box(i * (int) (CANVAS_WIDTH / NUM_OF_BOXES) + PADDING, 0, boxes[i].getSTOP() - 50, i % 2 == 0, layout, rotations);
             } else {
                 boxes[i].prepare();
             }
-            onGround[i] = 1;
+            setOnGround(i, 1);
         }
     }
 
@@ -119,46 +218,19 @@ public class Transporter {
     private void importBoxes() {
         for (int i = 0; i < NUM_OF_BOXES; i++) {
             if (onGround[i] == 0) {     // only makes new instances of the boxes that have settled and are not in the air
-                totalBoxes.add(boxes[i]);
-                boxes[i] = new Box(i * (int) (CANVAS_WIDTH / NUM_OF_BOXES) + PADDING, 0, boxes[i].getSTOP() - 50, i % 2 == 0);
+                boxes[i] = new Box(i * (int) (CANVAS_WIDTH / NUM_OF_BOXES) + PADDING, 0, boxes[i].getSTOP() - 50, i % 2 == 0, layout, rotations);
             } boxes[i].prepare(nextBoxes[i]);
-            nextBoxes[i] = random.nextBoolean();
-            onGround[i] = 1;
+            nextBoxes[i] = layout.nextBoolean();
+            setOnGround(i, 1);
         }
         ensureNotAllPrepared();                                 // makes sure not an entire row of boxes fall (the user will inevitably lose)
     }
 
-    public void deployLinearFill(GraphicsContext gc, double time) {
-        int boxesOnGround = sum(onGround);
-        for (int i = 0; i < NUM_OF_BOXES; i++) {
-            if (boxes[i].isReady()) {
-                boxes[i].drop(time);
-                boxes[i].render(gc);
-                if (!countInital) boxesToBeDropped++;
-                onGround[i] = boxes[i].inMotion() ? 1 : 0;
-            }
-        }
-        if (!countInital) countInital = true;
-        if (boxesToBeDropped == boxesOnGround) resetRoundLinearFill();
-        if (boxesOnGround == NUM_OF_BOXES) importBoxesLinearFill();
-    }
-
-    public void resetRoundLinearFill() {
-        countInital = false;
-        boxesToBeDropped = 0;
-        for (int i = 0; i < NUM_OF_BOXES; i++) {
-            if (onGround[i] == 1) {
-                boxes[i].prepare();
-            }
-        }
-    }
-
     private void importBoxesLinearFill() {
         rowHeight -= boxWidth;
         for (int i = 0; i < NUM_OF_BOXES; i++) {
-            onGround[i] = 1;
-            boxes[i] = new Box(i*(int)(CANVAS_WIDTH/NUM_OF_BOXES)+PADDING,0,rowHeight, i % 2 == 0);
-            totalBoxes.add(boxes[i]);
+            setOnGround(i, 1);
+            boxes[i] = new Box(i*(int)(CANVAS_WIDTH/NUM_OF_BOXES)+PADDING,0,rowHeight, i % 2 == 0, layout, rotations);
 //            if (i == 3)
 //                boxes[i].readyToDrop = true;
 //            else
@@ -174,7 +246,7 @@ public class Transporter {
             }
         } if (all) {
             for (int i = 0; i < NUM_OF_BOXES; i++) {
-                if (random.nextBoolean()) {
+                if (difficulty.nextBoolean()) {
                     boxes[i].unprepare();
                     nextBoxes[i] = false;
                 }
@@ -185,38 +257,32 @@ public class Transporter {
     /**
      * Returns the internal map of the game or all of the boxes that are occupying the screen
      */
-    public int[][] getHazards() {
+    public long getHazards() {
         return screen;
     }
 
     /**
-     * Checks for collision between boxes that are still in the air and the bird's MAPPED x and y positions
+     * Returns the number of boxes stacked up in each column of the internal map (the bird stands on them, and columns that are
+     * stacked up to MAX_HEIGHT don't take any more boxes). The array is kept up to date and must not be modified.
+     */
+    public int[] getColumnHeights() {
+        return columnHeights;
+    }
+
+    /**
+     * Checks for collision between boxes that are still in the air and the bird's MAPPED x and y positions. The boxes that passed through
+     * the bird's row during the step are looked up in the map of falling boxes, the nearest one on each side bounds the bird.
+     * @return the right edge of the box to the left of the bird and the left edge of the box to the right of it (-1 when there is none),
+     *         the array is reused by the next call
      */
     public int[] getActiveBoxBounds(int birdMappedX, int birdMappedY) {
-        int[] boxBounds = new int[2];
-        int counter = 1;
-        int leftX = -1; int rightX = -1;
-        boolean leftFound = false; boolean rightFound = false;
-
-        while (!leftFound && !rightFound) {     // flood-fill search algorithm, looks for a box in the air to the left and right of the bird until one
-                                                // is found and sets the birds position thresholds to those boxes' x-positions
-            if (birdMappedX-counter >= 0) {
-                if (boxes[birdMappedX-counter].inMotion() && getMappedY(boxes[birdMappedX-counter].getY()) == birdMappedY) {
-                    leftX = birdMappedX-counter; leftFound = true;
-                }
-            }
-            if (birdMappedX+counter <= NUM_OF_BOXES-1) {
-                if (boxes[birdMappedX+counter].inMotion() && getMappedY(boxes[birdMappedX+counter].getY()) == birdMappedY) {
-                    rightX = birdMappedX+counter; rightFound = true;
-                }
-            }
-            if (birdMappedX-counter < 0 && birdMappedX+counter > NUM_OF_BOXES-1) break;
-            counter++;
-        }
+        int row = birdMappedY + MAX_HEIGHT * stackNum;      // the bird's row counted from the current stack, like the falling boxes
+        int inRow = row >= 0 && row < Bitboard.SIZE ? Bitboard.row(swept, row) : 0;
+        int leftX = Bitboard.previousInRow(inRow, birdMappedX - 1);
+        int rightX = Bitboard.nextInRow(inRow, birdMappedX + 1);
         boxBounds[0] = leftX != -1 ? (int)(leftX*boxWidth+boxWidth) : -1;
-        boxBounds[1] = rightX != -1 ? (int)(rightX*boxWidth) : -1;
+        boxBounds[1] = rightX != Bitboard.SIZE ? (int)(rightX*boxWidth) : -1;
         return boxBounds;
-
     }
 
     /**
@@ -228,45 +294,17 @@ public class Transporter {
     }
 
     public int getStackMinHeight() {
-        int y = 0;
-        boolean allPresent;
-        for (int i = 0; i < NUM_OF_BOXES; i++) {
-            allPresent = true;
-            for (int j = 0; j < NUM_OF_BOXES; j++) {
-                if (screen[i][j] == 0) {
-                    allPresent = false;
-                    break;
-                }
-            }
-            if (allPresent) {
-                y = i;
-                break;
-            }
-        }
-        return NUM_OF_BOXES-y;
+        int y = Bitboard.highestFullRow(screen);
+        return NUM_OF_BOXES - (y == Bitboard.SIZE ? 0 : y);
     }
 
     public int getNumOfBoxes() { return NUM_OF_BOXES; }
 
     private void outputScreen() {
-        for (int i = 0; i < screen.length; i++) {
-            for (int j = 0; j < screen[i].length; j++) {
-                System.out.print(screen[i][j] + " ");
-            }
-            System.out.println();
-        }
+        System.out.print(Bitboard.toString(screen));
         System.out.println("---------------");
     }
 
-    /**
-     * Finds the sum of a primitive integer array
-     */
-    private int sum(int[] nums) {
-        int sum = 0;
-        for (int num : nums) sum += num;
-        return NUM_OF_BOXES-sum;
-    }
-
     /**
      * Returns general information about the transporter such as the number of boxes it carries, each box's width and the maximum row height (AKA box height)
      */
@@ -275,30 +313,21 @@ public class Transporter {
     }
 
     /**
-     * Resets the internal map every level
+     * Resets the internal map every level (once TOP_ROW has filled up), the next stack is built on top of the last one
      */
-    public boolean reset() {
-        boolean topFull = true;
-        for (int i = 0; i < NUM_OF_BOXES; i++) {
-            if (screen[1][i] != 1) {
-                topFull = false;
-                break;
-            }
-        } if (topFull) {
-            countInital = false;
-            boxesToBeDropped = 0;
-            importBoxes();
-            stackNum++;
-            screen = new int[COLUMN_OF_BOXES][NUM_OF_BOXES];
-        }
-        return topFull;
+    public void nextStack() {
+        countInital = false;
+        boxesToBeDropped = 0;
+        importBoxes();
+        stackNum++;
+        screen = 0;
+        Arrays.fill(columnHeights, 0);
+        remapFalling();
     }
 
     public boolean[] getNextBoxes() { return nextBoxes; }
 
-    public boolean allOnGround() { return sum(onGround) == boxesToBeDropped; }
-
-    public int amountOnGround() { return sum(onGround); }
+    private boolean allOnGround() { return landed == boxesToBeDropped; }
 
     /**
      * Resets this class' variables to their default values
@@ -307,27 +336,104 @@ public class Transporter {
         rowHeight = 485;
         boxWidth = 50;
         boxesToBeDropped = 0;
-        AT_REST = 1;
         COLUMN_OF_BOXES = NUM_OF_BOXES;
         stackNum = 0;
-        totalBoxes = new ArrayList<Box>();
         boxes = new Box[NUM_OF_BOXES];
         nextBoxes = new boolean[NUM_OF_BOXES];
         countInital = false;
         onGround = new int[NUM_OF_BOXES];
+        landed = NUM_OF_BOXES;
         for (int i = 0; i < NUM_OF_BOXES; i++) {
-            nextBoxes[i] = random.nextBoolean();
+            nextBoxes[i] = layout.nextBoolean();
         }
-        screen = new int[COLUMN_OF_BOXES][NUM_OF_BOXES];
+        screen = 0;
+        Arrays.fill(columnHeights, 0);
+        settled.clear();
         importBoxesLinearFill();
+        remapFalling();
+    }
+
+    /**
+     * Discards the boxes that have scrolled off the bottom of the screen. The screen only ever scrolls down, so they can never be seen again.
+     * @param bottom the y-position of the bottom of the screen in the world
+     */
+    public void cullBelow(double bottom) {
+        settled.cullBelow(bottom);
     }
 
-    public void removeBoxesFromGraph(ObservableList<Node> children) {
-        for (Box box : totalBoxes) {
-            if (children.contains(box.getImageView()))
-                children.remove(box.getImageView());
+    /**
+     * Remembers the step the boxes are at when a step starts, so that the boxes can be interpolated from there when they are drawn
+     */
+    public void savePositions() {
+        previousStep = step;
+    }
+
+    /**
+     * Writes the state of the boxes, the internal map and the random streams into a buffer
+     */
+    public void save(ByteBuffer buffer) {
+        buffer.putDouble(rowHeight).putDouble(boxWidth);
+        buffer.put((byte) (countInital ? 1 : 0)).putInt(boxesToBeDropped).putInt(stackNum).putLong(step).putLong(previousStep);
+        for (int i = 0; i < NUM_OF_BOXES; i++) {
+            boxes[i].save(buffer);
+            buffer.put((byte) (nextBoxes[i] ? 1 : 0)).putInt(onGround[i]);
         }
+        buffer.putLong(screen).putLong(swept);
+        buffer.putLong(layout.getState()).putLong(rotations.getState()).putLong(difficulty.getState());
+        settled.save(buffer);
     }
-}
 
+    /**
+     * Reads the state back from a buffer written by save, reusing the boxes and the arrays that are already allocated
+     */
+    public void restore(ByteBuffer buffer) {
+        rowHeight = buffer.getDouble();
+        boxWidth = buffer.getDouble();
+        countInital = buffer.get() != 0;
+        boxesToBeDropped = buffer.getInt();
+        stackNum = buffer.getInt();
+        step = buffer.getLong();
+        previousStep = buffer.getLong();
+        landed = 0;
+        for (int i = 0; i < NUM_OF_BOXES; i++) {
+            boxes[i].restore(buffer);
+            nextBoxes[i] = buffer.get() != 0;
+            onGround[i] = buffer.getInt();
+            if (onGround[i] == 0) landed++;
+        }
+        screen = buffer.getLong();
+        long passed = buffer.getLong();
+        for (int i = 0; i < NUM_OF_BOXES; i++) columnHeights[i] = Bitboard.columnHeight(screen, i);
+        layout.setState(buffer.getLong());
+        rotations.setState(buffer.getLong());
+        difficulty.setState(buffer.getLong());
+        settled.restore(buffer);
+        remapFalling();
+        swept = passed;
+    }
 
+    /**
+     * Returns a checksum of the boxes and the internal map (used to check that a replay matches the recording)
+     */
+    public long checksum() {
+        long hash = stackNum;
+        for (Box box : boxes) {
+            hash = 31 * hash + Double.doubleToLongBits(box.getY(step));
+            hash = 31 * hash + (box.isReady() ? 1 : 0);
+        }
+        hash = 31 * hash + screen;
+        hash = 31 * hash + Arrays.hashCode(nextBoxes);
+        return 31 * hash + boxesToBeDropped;
+    }
+
+    /**
+     * Records the falling boxes and the boxes that have settled into the snapshot that is drawn
+     */
+    public void capture(Snapshot snapshot) {
+        snapshot.ensureColumns(NUM_OF_BOXES);
+        for (int i = 0; i < NUM_OF_BOXES; i++) {
+            boxes[i].capture(snapshot, i, previousStep, step);
+        }
+        settled.capture(snapshot);
+    }
+}
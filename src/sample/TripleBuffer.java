@@ -0,0 +1,54 @@
+/**
+ * @File: TripleBuffer.java
+ * @Author: Abhi Gupta
+ * @Description: This class passes the latest state of the game from the simulation thread to the JavaFX Application Thread without
+ *               either of them ever waiting on the other. There are three slots: the writer fills the back slot, the reader draws from
+ *               the front slot, and the slot in the middle holds the latest state that was published. Publishing and reading only swap
+ *               a slot with the middle one in a single atomic step, so the writer never overwrites what is being drawn and the reader
+ *               always gets the newest complete state (states that were published in between are skipped).
+ */
+
+package sample;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class TripleBuffer<T> {
+    private final static int DIRTY = 4;                 // marks the middle slot as published but not yet read
+    private final Object[] slots;
+    private final AtomicInteger middle = new AtomicInteger(1);  // the index of the middle slot along with the dirty flag
+    private int back = 0;           // the slot being written (only used by the writer)
+    private int front = 2;          // the slot being read (only used by the reader)
+
+    /**
+     * Constructor
+     * @param factory creates each of the three slots
+     */
+    public TripleBuffer(Supplier<T> factory) {
+        slots = new Object[]{factory.get(), factory.get(), factory.get()};
+    }
+
+    /**
+     * Returns the slot that the writer should fill before publishing it
+     */
+    @SuppressWarnings("unchecked")
+    public T getBack() {
+        return (T) slots[back];
+    }
+
+    /**
+     * Publishes the back slot as the latest state, and takes the previous middle slot as the next one to be written
+     */
+    public void publish() {
+        back = middle.getAndSet(back | DIRTY) & 3;
+    }
+
+    /**
+     * Returns the latest state that was published, or the same state as the last call when nothing new has been published since
+     */
+    @SuppressWarnings("unchecked")
+    public T read() {
+        if ((middle.get() & DIRTY) != 0) front = middle.getAndSet(front) & 3;
+        return (T) slots[front];
+    }
+}
@@ -7,39 +7,20 @@
 
 package sample;
 
-import javafx.collections.ObservableList;
-import javafx.scene.Node;
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
-
 public class WarningSign extends Sprite {
-    private ImageView sign;
 
     public WarningSign(double x, double y) {
         super();
         setImage(Img.warningSignOff);
-        setPosition(x, y);
-        sign = new ImageView(image);
-        sign.setX(positionX);
+        setPosition(x, y-5);
     }
 
-    public void setY(double y) { sign.setY(y-5); }
-
-    public ImageView getImageView() { return sign; }
-
-    public void render(ObservableList<Node> children, boolean flicker) {
-        if (children.contains(sign)) children.remove(sign);
+    public void render(Renderer renderer, boolean flicker) {
         setImage(getSign(flicker));
-        sign.setImage(image);
-        children.add(sign);
+        renderer.drawSprite(this, image, getX(), getY(), 0, Layer.SIGNS);
     }
 
-    private Image getSign(boolean n) {
+    private Texture getSign(boolean n) {
         return n ? Img.warningSignOff : Img.warningSignOn;
     }
-
-    public void hide(ObservableList<Node> children) {
-        if (children.contains(sign))
-            children.remove(sign);
-    }
 }
@@ -0,0 +1,124 @@
+/**
+ * @File: WorldView.java
+ * @Author: Abhi Gupta
+ * @Description: This class draws the foreground of the game (the boxes, the bird, the score board, the caution signs and the menu) from
+ *               the latest snapshot published by the simulation. It only runs on the JavaFX Application Thread and never touches the
+ *               objects of the simulation, so the simulation can carry on with the next step while a frame is being drawn.
+ */
+
+package sample;
+
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+public class WorldView {
+    private final Font TEXT_FONT = Font.font("Comic Sans MS",FontWeight.BOLD,70);
+    private final Font MENU_FONT = Font.font("Comic Sans MS",FontWeight.BOLD,40);
+    private final double WIDTH;
+    private final double HEIGHT;
+    private RowCache settledRows;           // the boxes that have come to rest, merged into a single image per row
+    private Key keyRight = new Key(Keyboard.RIGHT, 310, 575);
+    private Key keyLeft = new Key(Keyboard.LEFT, 25, 575);
+    private WarningSign[] warningSigns = new WarningSign[0];
+    private Object[] boxKeys = new Object[0];   // identify each falling box when it is drawn
+    private final Object bird = new Object();
+    private final Object scoreBoard = new Object();
+    private final Object menuScore = new Object();
+    private int score = 0;
+    private String scoreText = "0";         // the score as text, only updated when the score changes
+
+    /**
+     * Constructor
+     * @param width the width of the screen
+     * @param height the height of the screen
+     * @param boxSize the width and height of a box
+     */
+    public WorldView(double width, double height, double boxSize) {
+        WIDTH = width;
+        HEIGHT = height;
+        settledRows = new RowCache(width, boxSize);
+    }
+
+    /**
+     * Draws a snapshot of the game through the renderer, from the back-most layer to the front-most. Whatever moves is drawn part of
+     * the way between where it was at the end of the previous step and where it is in the snapshot.
+     * @param snapshot the latest state of the game
+     * @param alpha how far the current moment is between the previous step and the one in the snapshot (0 to 1)
+     */
+    public void render(Renderer renderer, Snapshot snapshot, double alpha) {
+        double cameraY = lerp(snapshot.previousCameraY, snapshot.cameraY, alpha);
+        renderer.beginFrame(cameraY);
+        if (snapshot.score != score) {
+            score = snapshot.score;
+            scoreText = Integer.toString(score);
+        }
+        if (snapshot.gameStarted) {
+            settledRows.sync(snapshot, HEIGHT - snapshot.cameraY);
+            settledRows.render(renderer);
+            if (snapshot.birdVisible)
+                renderer.drawSprite(bird, snapshot.birdTexture, lerp(snapshot.birdPreviousX, snapshot.birdX, alpha),
+                        lerp(snapshot.birdPreviousY, snapshot.birdY, alpha), snapshot.birdRotation, Layer.BIRD);
+            renderBoxes(renderer, snapshot, alpha);
+            if (snapshot.boardVisible) {
+                renderer.drawText(scoreBoard, scoreText, getScoreX(scoreText), 547, TEXT_FONT, Colour.semiWhite, Layer.HUD);
+                keyRight.render(renderer, snapshot.keys);
+                keyLeft.render(renderer, snapshot.keys);
+            }
+            renderSigns(renderer, snapshot);
+        }
+        // Display Menu after Winning or Losing
+        if (snapshot.menu) {
+            renderer.drawSprite(Img.menu, Img.menu, WIDTH/2-155, 0, 0, Layer.MENU);
+            int x = scoreText.length() == 1 ? 190 : 190-14;
+            renderer.drawText(menuScore, scoreText, x, 302, MENU_FONT, Color.WHITE, Layer.MENU);
+        }
+        renderer.endFrame();
+    }
+
+    /**
+     * Renders the boxes that are falling
+     */
+    private void renderBoxes(Renderer renderer, Snapshot snapshot, double alpha) {
+        if (boxKeys.length < snapshot.boxVisible.length) {
+            boxKeys = new Object[snapshot.boxVisible.length];
+            for (int i = 0; i < boxKeys.length; i++) boxKeys[i] = new Object();
+        }
+        for (int i = 0; i < snapshot.boxVisible.length; i++) {
+            if (snapshot.boxVisible[i])
+                renderer.drawSprite(boxKeys[i], snapshot.boxTexture[i], lerp(snapshot.boxPreviousX[i], snapshot.boxX[i], alpha),
+                        lerp(snapshot.boxPreviousY[i], snapshot.boxY[i], alpha), snapshot.boxRotation[i], Layer.BOXES);
+        }
+    }
+
+    /**
+     * Renders the caution signs that are being displayed on the screen
+     */
+    private void renderSigns(Renderer renderer, Snapshot snapshot) {
+        if (!snapshot.signsVisible) return;
+        if (warningSigns.length < snapshot.signs.length) {
+            warningSigns = new WarningSign[snapshot.signs.length];
+            // creates the number of sign as the number of boxes
+            for (int i = 0; i < warningSigns.length; i++)
+                warningSigns[i] = new WarningSign(i*50-2,0);
+        }
+        for (int i = 0; i < snapshot.signs.length; i++) {
+            if (snapshot.signs[i]) {
+                warningSigns[i].render(renderer, snapshot.flicker);
+            }
+        }
+    }
+
+    /**
+     * Returns the x-position of the score on the score board, so that it stays centered as it gets longer
+     */
+    private int getScoreX(String scoreText) {
+        if (scoreText.length() == 2) return 180-26;
+        if (scoreText.length() >= 3) return 180-48;
+        return 180;
+    }
+
+    private static double lerp(double previous, double current, double alpha) {
+        return previous + (current - previous) * alpha;
+    }
+}
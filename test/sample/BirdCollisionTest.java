@@ -0,0 +1,120 @@
+/**
+ * @File: BirdCollisionTest.java
+ * @Author: Abhi Gupta
+ * @Description: Checks the walls that Bird.checkCollision looks up with bit operations against the original scan of the bird's row, one
+ *               column at a time, over random walks of the bird through random rows of boxes and walls of falling boxes. The thresholds
+ *               carry over from one check to the next in both, so the ones left behind by boxes that have gone are covered as well.
+ *               Run with: java -cp <classes>:src sample.BirdCollisionTest
+ */
+
+package sample;
+
+import java.util.Random;
+
+public class BirdCollisionTest {
+    private final static int BOX = 50;      // the width of a box
+    private static double lowerBoundX;      // the thresholds of the original scan
+    private static double upperBoundX;
+
+    public static void main(String[] args) {
+        Bird bird = new Bird(Img.birdRight, new int[]{Bitboard.SIZE, 485, BOX});
+        double width = bird.getWidth();
+        int[] heights = new int[Bitboard.SIZE];
+        int[] falling = new int[2];
+        Random random = new Random(23);
+        int collisions = 0;
+        lowerBoundX = bird.getLowerBoundsX();
+        upperBoundX = bird.getUpperBoundsX();
+        int row = 0;
+        double x = 100;
+        for (int n = 0; n < 2000000; n++) {
+            // the boxes change now and then (a box lands or the row is cleared), and the bird mostly moves a little
+            if (random.nextInt(8) == 0) row = random.nextInt(1 << Bitboard.SIZE) & random.nextInt(1 << Bitboard.SIZE);
+            else if (random.nextInt(8) == 0) row ^= 1 << random.nextInt(Bitboard.SIZE);
+            x = random.nextInt(4) == 0 ? position(random, width) : x + (random.nextInt(17) - 8) / 2.0;
+            x = Math.max(-20, Math.min(400 + 20 - width, x));
+            falling[0] = random.nextInt(4) == 0 ? random.nextInt(Bitboard.SIZE + 1) * BOX : -1;
+            falling[1] = random.nextInt(4) == 0 ? random.nextInt(Bitboard.SIZE + 1) * BOX : -1;
+
+            int[] boxes = new int[Bitboard.SIZE];
+            for (int i = 0; i < Bitboard.SIZE; i++) boxes[i] = row >>> i & 1;
+            boolean collide = scan(boxes, falling, x, width);
+
+            bird.setPosition(x, 439);       // standing on the ground, the row is the same at every height
+            boolean collided = bird.checkCollision(row * Bitboard.COLUMN, heights, falling);
+            if (collided != collide || bird.getLowerBoundsX() != lowerBoundX || bird.getUpperBoundsX() != upperBoundX) {
+                throw new AssertionError("row " + Integer.toBinaryString(row) + " at x = " + x + " with falling walls " + falling[0] + ", "
+                        + falling[1] + ": expected " + collide + " " + lowerBoundX + " " + upperBoundX + ", got " + collided + " "
+                        + bird.getLowerBoundsX() + " " + bird.getUpperBoundsX());
+            }
+            if (collide) collisions++;
+        }
+        System.out.println("BirdCollisionTest passed (" + collisions + " collisions)");
+    }
+
+    /**
+     * The collision detection of the bird as it was before the row was looked up with bit operations, a scan of every column
+     * @param row the stationary boxes in the bird's row (1 where there is a box)
+     * @param boxBounds the walls of the falling boxes on either side of the bird (-1 when there is none)
+     */
+    private static boolean scan(int[] row, int[] boxBounds, double positionX, double width) {
+        // Collision detection between active boxes to the left and right of the bird
+        int leftBoxBounds = boxBounds[0];
+        int rightBoxBounds = boxBounds[1];
+        if (leftBoxBounds != -1) {                   // -1 implies there is no box in motion to the left of the bird
+            if (positionX + 8 <= leftBoxBounds) {    // 8 is padding for the tail
+                lowerBoundX = leftBoxBounds - 8;
+            }
+        }
+        if (rightBoxBounds != -1) {                 // 9 is padding for the beak
+            if (positionX + width - 9 >= rightBoxBounds) {
+                upperBoundX = rightBoxBounds - width + 9;
+            }
+        }
+        // Collision detection between stationary boxes to the left and right of the bird
+        for (int i = 0; i < Bitboard.SIZE; i++) {
+            int box = row[i];
+            double boxPositionX = i * 50;
+
+            if (box == 1) {
+                // Bird Right of Box
+                if (positionX + width > boxPositionX + BOX) {
+                    if (positionX < boxPositionX + BOX) {
+                        lowerBoundX = boxPositionX + BOX - 8;
+                        return true;
+                    } else if (positionX > boxPositionX + BOX) {
+                        lowerBoundX = -20;
+                    }
+                } // Bird Left of Box
+                else if (positionX + 9 < boxPositionX) {
+                    if (positionX + width > boxPositionX) {
+                        upperBoundX = boxPositionX - width + 9;
+                        return true;
+                    } else if (positionX + width < boxPositionX) {
+                        upperBoundX = 400 - width + 20;
+                        break;
+                    }
+                } else {    // restores the default thresholds
+                    lowerBoundX = -20;
+                    upperBoundX = 400 - width + 20;
+                }
+              // restores the default thresholds when there is no box colliding in this direction
+            } else if (box == 0) {
+                if (lowerBoundX == boxPositionX + BOX - 8 && leftBoxBounds == -1)
+                    lowerBoundX = -20;
+                if (upperBoundX == boxPositionX - width + 9 && rightBoxBounds == -1)
+                    upperBoundX = 400 - width + 20;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a random x-position of the bird, often right at or next to where a box starts or ends
+     */
+    private static double position(Random random, double width) {
+        double edge = random.nextInt(Bitboard.SIZE + 2) * BOX;
+        double[] positions = {edge, edge - width, edge - 8, edge - width + 9, edge + 9, edge - width - 8, -20 + random.nextDouble() * 440};
+        return positions[random.nextInt(positions.length)] + (random.nextInt(4) == 0 ? (random.nextInt(3) - 1) / 65536.0 : 0);
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * @File: BitboardTest.java
+ * @Author: Abhi Gupta
+ * @Description: Checks the bit operations of Bitboard against plain scans of the same map laid out as an 8x8 array, on random maps and
+ *               on the empty and full ones. Run with: java -cp <classes> sample.BitboardTest
+ */
+
+package sample;
+
+import java.util.Random;
+
+public class BitboardTest {
+    private final static int N = Bitboard.SIZE;
+
+    public static void main(String[] args) {
+        Random random = new Random(21);
+        int boards = 0;
+        for (int i = 0; i < 20000; i++) {
+            long board;
+            switch (i) {
+                case 0: board = 0; break;
+                case 1: board = -1L; break;
+                default:
+                    board = random.nextLong() & random.nextLong();      // sparser maps have fewer full rows
+                    if (i % 3 == 0) board |= Bitboard.rows(random.nextInt(N), random.nextInt(N));
+            }
+            checkBoard(board);
+            boards++;
+        }
+        for (int from = -1; from <= N; from++) {
+            for (int to = -1; to <= N; to++) {
+                boolean[][] map = new boolean[N][N];
+                for (int r = Math.max(from, 0); r <= Math.min(to, N - 1); r++) {
+                    for (int c = 0; c < N; c++) map[r][c] = true;
+                }
+                check(Bitboard.rows(from, to) == toBoard(map), "rows " + from + " to " + to);
+            }
+        }
+        System.out.println("BitboardTest passed (" + boards + " maps)");
+    }
+
+    private static void checkBoard(long board) {
+        boolean[][] map = toMap(board);
+        String name = Long.toHexString(board);
+
+        // a map built one spot at a time is the same map
+        long built = 0;
+        for (int r = 0; r < N; r++) {
+            for (int c = 0; c < N; c++) {
+                if (map[r][c]) built = Bitboard.set(built, r, c);
+            }
+        }
+        check(built == board, "set rebuilds " + name);
+
+        // full rows
+        long full = 0;
+        int highestFull = N;
+        for (int r = 0; r < N; r++) {
+            boolean rowFull = true;
+            for (int c = 0; c < N; c++) rowFull &= map[r][c];
+            check(Bitboard.isRowFull(board, r) == rowFull, "row " + r + " is full in " + name);
+            if (rowFull) {
+                full = Bitboard.set(full, r, 0);
+                highestFull = Math.min(highestFull, r);
+            }
+        }
+        check(Bitboard.fullRows(board) == full, "full rows of " + name);
+        check(Bitboard.highestFullRow(board) == highestFull, "highest full row of " + name);
+
+        // column heights
+        for (int c = 0; c < N; c++) {
+            int highest = N;
+            for (int r = N - 1; r >= 0; r--) {
+                if (map[r][c]) highest = r;
+            }
+            check(Bitboard.highestInColumn(board, c) == highest, "highest spot in column " + c + " of " + name);
+            check(Bitboard.columnHeight(board, c) == N - highest, "height of column " + c + " of " + name);
+        }
+
+        // the occupied spots either side of a column in a row
+        for (int r = 0; r < N; r++) {
+            int row = Bitboard.row(board, r);
+            for (int c = -1; c <= N; c++) {
+                int next = N;
+                for (int x = N - 1; x >= Math.max(c, 0); x--) {
+                    if (map[r][x]) next = x;
+                }
+                int previous = -1;
+                for (int x = 0; x <= Math.min(c, N - 1); x++) {
+                    if (map[r][x]) previous = x;
+                }
+                check(Bitboard.nextInRow(row, c) == next, "next spot from column " + c + " of row " + r + " of " + name);
+                check(Bitboard.previousInRow(row, c) == previous, "previous spot from column " + c + " of row " + r + " of " + name);
+            }
+        }
+
+        // shifts and neighbours
+        boolean[][] left = new boolean[N][N], right = new boolean[N][N], up = new boolean[N][N], down = new boolean[N][N];
+        boolean[][] neighbours = new boolean[N][N];
+        for (int r = 0; r < N; r++) {
+            for (int c = 0; c < N; c++) {
+                left[r][c] = c + 1 < N && map[r][c + 1];
+                right[r][c] = c > 0 && map[r][c - 1];
+                up[r][c] = r + 1 < N && map[r + 1][c];
+                down[r][c] = r > 0 && map[r - 1][c];
+                neighbours[r][c] = left[r][c] || right[r][c] || up[r][c] || down[r][c];
+            }
+        }
+        check(Bitboard.shiftLeft(board) == toBoard(left), "left shift of " + name);
+        check(Bitboard.shiftRight(board) == toBoard(right), "right shift of " + name);
+        check(Bitboard.shiftUp(board) == toBoard(up), "up shift of " + name);
+        check(Bitboard.shiftDown(board) == toBoard(down), "down shift of " + name);
+        check(Bitboard.neighbours(board) == toBoard(neighbours), "neighbours of " + name);
+    }
+
+    private static boolean[][] toMap(long board) {
+        boolean[][] map = new boolean[N][N];
+        for (int r = 0; r < N; r++) {
+            for (int c = 0; c < N; c++) map[r][c] = Bitboard.get(board, r, c);
+        }
+        return map;
+    }
+
+    private static long toBoard(boolean[][] map) {
+        long board = 0;
+        for (int r = 0; r < N; r++) {
+            for (int c = 0; c < N; c++) {
+                if (map[r][c]) board |= 1L << (r * N + c);
+            }
+        }
+        return board;
+    }
+
+    private static void check(boolean condition, String what) {
+        if (!condition) throw new AssertionError(what);
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * @File: FixedTest.java
+ * @Author: Abhi Gupta
+ * @Description: Checks the fixed-point helpers near the edge of what an int holds, and that positions in the world past that edge (as
+ *               reached after about 90 stacks) still convert, fall and save exactly. Run with: java -cp <classes> sample.FixedTest
+ */
+
+package sample;
+
+import java.nio.ByteBuffer;
+
+public class FixedTest {
+
+    public static void main(String[] args) {
+        // an int holds up to MAX_PIXELS whole pixels, anything past that is refused instead of wrapping around
+        check(Fixed.of(Fixed.MAX_PIXELS) == Fixed.MAX_PIXELS << Fixed.SHIFT, "the largest whole number of pixels converts");
+        check(Fixed.of(-Fixed.MAX_PIXELS - 1) == Integer.MIN_VALUE, "the smallest whole number of pixels converts");
+        check(Fixed.of(32767.99) > 0, "a fraction of a pixel below the edge converts");
+        refused(() -> Fixed.of(Fixed.MAX_PIXELS + 1), "one pixel past the edge");
+        refused(() -> Fixed.of(-Fixed.MAX_PIXELS - 2), "one pixel below the edge");
+        refused(() -> Fixed.of(32767.999999), "a double that rounds past the edge");
+        refused(() -> Fixed.of(-40000.5), "a position in the world past the edge");
+
+        // positions are longs, they go past the edge and still convert back exactly
+        for (double y : new double[]{32768, -32769, -40000.5, -1e6 + 1 / 65536.0, 1e9}) {
+            check(Fixed.toDouble(Fixed.position(y)) == y, y + " converts to a position and back");
+        }
+        refused(() -> Fixed.toInt(Fixed.position(1e5) << 16), "a whole number of pixels that doesn't fit in an int");
+
+        // a box dropped far above the first stack falls and lands like one near the ground
+        RandomStream stream = new RandomStream(1, RandomStream.LAYOUT);
+        Box near = new Box(0.5, -100, 400, true, stream, stream);
+        Box far = new Box(0.5, -100 - 350 * 120, 400 - 350 * 120, true, stream, stream);
+        near.drop(5000, -100);
+        far.drop(5000, -100 - 350 * 120);
+        check(far.getLandingStep() == near.getLandingStep(), "a box past the edge lands at the same step");
+        for (long step = 5000; step <= near.getLandingStep(); step++) {
+            check(far.getY(step) == near.getY(step) - 350 * 120, "a box past the edge is as far down at step " + step);
+        }
+        check(far.getY(far.getLandingStep()) == far.getSTOP(), "a box past the edge stops at its threshold");
+
+        // and is saved and restored without losing its position
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        far.save(buffer);
+        buffer.flip();
+        Box restored = new Box(0.5, 0, 0, true, stream, stream);
+        restored.restore(buffer);
+        check(restored.getY() == far.getY() && restored.getSTOP() == far.getSTOP(), "a box past the edge is restored");
+        check(restored.getY(far.getLandingStep() - 1) == far.getY(far.getLandingStep() - 1), "a restored box falls the same way");
+
+        // the bird is held above a box past the edge
+        Bird bird = new Bird(Img.birdRight, new int[]{8, 485, 50});
+        bird.setPosition(100, -50000);
+        bird.setLowerBoundsY(-60000);
+        bird.setUpperBoundsY(-50010.25);
+        bird.update();
+        check(bird.getY() == -50010.25, "the bird is held at a threshold past the edge");
+        System.out.println("FixedTest passed");
+    }
+
+    private static void refused(Runnable conversion, String what) {
+        try {
+            conversion.run();
+        } catch (ArithmeticException e) {
+            return;
+        }
+        throw new AssertionError(what + " was converted instead of being refused");
+    }
+
+    private static void check(boolean condition, String what) {
+        if (!condition) throw new AssertionError(what);
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * @File: LandingTest.java
+ * @Author: Abhi Gupta
+ * @Description: Checks the worked out landings of the boxes: Box.stepReaching against where the box is on the steps either side of it,
+ *               and StepQueue against a scan over every id for the one that is due first. Run with: java -cp <classes>:src sample.LandingTest
+ */
+
+package sample;
+
+import java.util.Random;
+
+public class LandingTest {
+    private final static int IDS = 8;
+
+    public static void main(String[] args) {
+        // the step returned is the first one at which the box has fallen to the y-position
+        Random random = new Random(24);
+        RandomStream stream = new RandomStream(1, RandomStream.LAYOUT);
+        for (int n = 0; n < 300000; n++) {
+            Box box = new Box(0, 0, 30000, true, stream, stream);
+            long dropStep = n % 3 == 0 ? random.nextInt(5) : n % 3 == 1 ? random.nextInt(100000) : random.nextInt(100000000);
+            double from = -random.nextInt(2000) - random.nextInt(65536) / 65536.0;
+            box.drop(dropStep, from);
+            for (int i = 0; i < 5; i++) {
+                int y = Fixed.of(from) + random.nextInt(Fixed.of(1000)) - (i == 0 ? Fixed.of(5) : 0);
+                long step = box.stepReaching(y);
+                check(Fixed.of(box.getY(step)) >= y, "the box has reached " + y + " at step " + step);
+                check(step == dropStep || Fixed.of(box.getY(step - 1)) < y, "the box hasn't reached " + y + " before step " + step);
+            }
+        }
+
+        // the queue gives out the id that is due first, and the lowest id of those due at the same step
+        StepQueue queue = new StepQueue(IDS);
+        long[] due = new long[IDS];
+        boolean[] queued = new boolean[IDS];
+        for (int n = 0; n < 2000000; n++) {
+            int id = random.nextInt(IDS);
+            switch (random.nextInt(3)) {
+                case 0:
+                    due[id] = random.nextInt(50);
+                    queued[id] = true;
+                    queue.schedule(id, due[id]);
+                    break;
+                case 1:
+                    queued[id] = false;
+                    queue.cancel(id);
+                    break;
+                default:
+                    int first = -1;
+                    for (int i = 0; i < IDS; i++) {
+                        if (queued[i] && (first == -1 || due[i] < due[first])) first = i;
+                    }
+                    check(queue.isEmpty() == (first == -1), "the queue is empty only when nothing is queued");
+                    if (first == -1) break;
+                    check(queue.peekStep() == due[first], "the first step due");
+                    check(queue.poll() == first, "the first id due");
+                    queued[first] = false;
+            }
+        }
+        System.out.println("LandingTest passed");
+    }
+
+    private static void check(boolean condition, String what) {
+        if (!condition) throw new AssertionError(what);
+    }
+}
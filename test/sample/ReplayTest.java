@@ -0,0 +1,49 @@
+/**
+ * @File: ReplayTest.java
+ * @Author: Abhi Gupta
+ * @Description: Checks that a recorded session plays back without diverging and ends up in the same world as the one it was recorded
+ *               from (worlds are compared by their checksum). Run with: java -cp <classes>:src sample.ReplayTest
+ */
+
+package sample;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class ReplayTest {
+    private final static long SEED = 77;
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("session", ".rep");
+        try {
+            GameWorld world = new GameWorld(400, 650, SEED);
+            ReplayRecorder recorder = new ReplayRecorder(file, SEED);
+            Random random = new Random(5);
+            for (int i = 0; i < 5000; i++) recorder.tick(world, keys(world, random));
+            recorder.close();
+            ReplayPlayer player = new ReplayPlayer(file);
+            check(player.getSeed() == SEED, "the seed is recorded");
+            GameWorld playback = new GameWorld(400, 650, player.getSeed());
+            while (player.tick(playback)) ;
+            check(player.getDivergedAt() < 0, "the playback doesn't diverge");
+            check(playback.getTicks() == world.getTicks() && playback.checksum() == world.checksum(), "the playback ends in the same world");
+        } finally {
+            Files.delete(file);
+        }
+        System.out.println("ReplayTest passed");
+    }
+
+    /**
+     * Returns random keys to play with, starting a new game whenever the bird dies
+     */
+    private static int keys(GameWorld world, Random random) {
+        if (!world.isPlaying()) return Input.RIGHT;
+        return random.nextInt(4) == 0 ? 0 : random.nextBoolean() ? Input.LEFT : Input.RIGHT;
+    }
+
+    private static void check(boolean condition, String what) {
+        if (!condition) throw new AssertionError(what);
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * @File: RewindTest.java
+ * @Author: Abhi Gupta
+ * @Description: Checks that stepping back with Rewind returns the world to each of the steps it went through, with an arena that holds
+ *               all of them and with one so small that the oldest steps are dropped. Run with: java -cp <classes>:src sample.RewindTest
+ */
+
+package sample;
+
+import java.util.Random;
+
+public class RewindTest {
+    private final static long SEED = 77;
+    private final static int STEPS = 5000;
+
+    public static void main(String[] args) {
+        for (int arena : new int[]{1 << 20, 80 * 1024}) {
+            GameWorld world = new GameWorld(400, 650, SEED);
+            Rewind rewind = new Rewind(600, arena);
+            Random random = new Random(5);
+            long[] checksums = new long[STEPS + 1];     // the checksum of the world at each step
+            for (int i = 0; i < STEPS; i++) {
+                world.tick(!world.isPlaying() ? Input.RIGHT : random.nextBoolean() ? Input.LEFT : Input.RIGHT);
+                rewind.capture(world);
+                checksums[(int) world.getTicks()] = world.checksum();
+                if (i % 997 == 996) {       // every so often go back a little and carry on from there
+                    for (int k = 0; k < 100 && rewind.stepBack(world); k++) {
+                        check(world.checksum() == checksums[(int) world.getTicks()], "stepping back to step " + world.getTicks());
+                    }
+                }
+            }
+            int back = 0;
+            while (rewind.stepBack(world)) {
+                back++;
+                check(world.checksum() == checksums[(int) world.getTicks()], "stepping back to step " + world.getTicks());
+            }
+            check(back > 0, "there are steps to go back to");
+        }
+        System.out.println("RewindTest passed");
+    }
+
+    private static void check(boolean condition, String what) {
+        if (!condition) throw new AssertionError(what);
+    }
+}
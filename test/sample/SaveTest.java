@@ -0,0 +1,47 @@
+/**
+ * @File: SaveTest.java
+ * @Author: Abhi Gupta
+ * @Description: Checks that a world saved at various points and restored into another world carries on exactly the same as the world it
+ *               was saved from (worlds are compared by their checksum). Run with: java -cp <classes>:src sample.SaveTest
+ */
+
+package sample;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+public class SaveTest {
+    private final static long SEED = 77;
+
+    public static void main(String[] args) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(GameWorld.SAVE_CAPACITY);
+        for (int steps : new int[]{50, 700, 3000, 9000}) {
+            GameWorld world = new GameWorld(400, 650, SEED);
+            play(world, new Random(5), steps);
+            buffer.clear();
+            world.save(buffer);
+            GameWorld copy = new GameWorld(400, 650, 1);
+            play(copy, new Random(1), 123);          // restoring overwrites whatever the copy was doing
+            buffer.flip();
+            copy.restore(buffer);
+            check(copy.getTicks() == world.getTicks() && copy.checksum() == world.checksum(), "a world restored after " + steps + " steps");
+            play(world, new Random(9), 2000);
+            play(copy, new Random(9), 2000);
+            check(world.checksum() == copy.checksum(), "a world restored after " + steps + " steps carries on the same");
+        }
+        System.out.println("SaveTest passed");
+    }
+
+    /**
+     * Plays a number of steps with random keys, starting a new game whenever the bird dies
+     */
+    private static void play(GameWorld world, Random random, int steps) {
+        for (int i = 0; i < steps; i++) {
+            world.tick(!world.isPlaying() ? Input.RIGHT : random.nextInt(4) == 0 ? 0 : random.nextBoolean() ? Input.LEFT : Input.RIGHT);
+        }
+    }
+
+    private static void check(boolean condition, String what) {
+        if (!condition) throw new AssertionError(what);
+    }
+}
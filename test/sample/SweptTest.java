@@ -0,0 +1,64 @@
+/**
+ * @File: SweptTest.java
+ * @Author: Abhi Gupta
+ * @Description: Checks Swept.time on a few cases worked out by hand, then against the positions of two random moving boxes sampled
+ *               along the step. Run with: java -cp <classes>:src sample.SweptTest
+ */
+
+package sample;
+
+import java.util.Random;
+
+public class SweptTest {
+    private final static int SAMPLES = 1000;        // the number of points along the step that the boxes are compared at
+    private final static double EPSILON = 1e-9;
+
+    public static void main(String[] args) {
+        // a 50x50 box falling past the middle of a standing bird (no width, 40 high) at y = 100 to 140
+        check(Swept.time(0, 0, 0, 200, 50, 50, 25, 100, 25, 100, 0, 40) == 0.25, "a box passing through the bird in a step");
+        check(Swept.time(0, 0, 0, 40, 50, 50, 25, 100, 25, 100, 0, 40) == Swept.NEVER, "a box stopping above the bird");
+        check(Swept.time(0, 0, 0, 50, 50, 50, 25, 100, 25, 100, 0, 40) == 1, "a box touching the bird at the end of the step");
+        check(Swept.time(100, 90, 100, 95, 50, 50, 60, 100, 160, 100, 0, 40) == 0.4, "the bird moving in under a box");
+        check(Swept.time(100, 90, 100, 95, 50, 50, 60, 100, 90, 100, 0, 40) == Swept.NEVER, "the bird stopping short of a box");
+        check(Swept.time(0, 0, 0, 0, 50, 50, 10, 10, 10, 10, 0, 40) == 0, "boxes that overlap for the whole step");
+
+        // the time returned is when the boxes first touch: they touch then and at no sampled point before it
+        Random random = new Random(25);
+        int hits = 0;
+        for (int n = 0; n < 200000; n++) {
+            double[] a = box(random), b = box(random);
+            double time = Swept.time(a[0], a[1], a[2], a[3], a[4], a[5], b[0], b[1], b[2], b[3], b[4], b[5]);
+            if (time != Swept.NEVER) {
+                hits++;
+                check(time >= 0 && time <= 1 && touching(a, b, time, EPSILON), "the boxes touch at the time returned");
+            }
+            for (int i = 0; i <= SAMPLES; i++) {
+                double t = (double) i / SAMPLES;
+                if (t < time - EPSILON) check(!touching(a, b, t, -EPSILON), "the boxes don't touch before the time returned");
+            }
+        }
+        System.out.println("SweptTest passed (" + hits + " of the random boxes touched)");
+    }
+
+    /**
+     * Returns a random box moving in a straight line over a step: where it starts, where it ends, its width and its height
+     */
+    private static double[] box(Random random) {
+        double x = random.nextInt(200), y = random.nextInt(200);
+        double dx = random.nextBoolean() ? 0 : random.nextInt(160) - 80, dy = random.nextInt(3) == 0 ? 0 : random.nextInt(160) - 80;
+        return new double[]{x, y, x + dx, y + dy, random.nextInt(4) == 0 ? 0 : random.nextInt(60), random.nextInt(60)};
+    }
+
+    /**
+     * Returns whether or not two moving boxes touch (or overlap by more than -margin) at a time during the step
+     */
+    private static boolean touching(double[] a, double[] b, double t, double margin) {
+        double ax = a[0] + (a[2] - a[0]) * t, ay = a[1] + (a[3] - a[1]) * t;
+        double bx = b[0] + (b[2] - b[0]) * t, by = b[1] + (b[3] - b[1]) * t;
+        return bx <= ax + a[4] + margin && ax <= bx + b[4] + margin && by <= ay + a[5] + margin && ay <= by + b[5] + margin;
+    }
+
+    private static void check(boolean condition, String what) {
+        if (!condition) throw new AssertionError(what);
+    }
+}
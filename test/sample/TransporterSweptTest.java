@@ -0,0 +1,68 @@
+/**
+ * @File: TransporterSweptTest.java
+ * @Author: Abhi Gupta
+ * @Description: Checks that every row a falling box passes through during a step is a wall for the bird at that step, even when the box
+ *               is so fast (late in a long game) that it crosses more than one row in a step or lands at the end of it. Run with:
+ *               java -cp <classes>:src sample.TransporterSweptTest
+ */
+
+package sample;
+
+import java.util.Arrays;
+
+public class TransporterSweptTest {
+    private final static long START = 2000000;      // about 9 hours into a game, when the boxes fall more than a row a step
+    private final static int STEPS = 300;
+
+    public static void main(String[] args) {
+        for (long seed = 1; seed <= 5; seed++) {
+            check(seed);
+        }
+    }
+
+    private static void check(long seed) {
+        GameEvents events = new GameEvents(1024);
+        GameEvents.Cursor cursor = events.subscribe();
+        Transporter transporter = new Transporter(400, seed, events);
+        int columns = transporter.getNumOfBoxes();
+        int boxWidth = transporter.getInfo()[2];
+        Bird bird = new Bird(Img.birdRight, transporter.getInfo());
+        bird.setPosition(-20, 80);
+        Snapshot snapshot = new Snapshot();
+        boolean[] dropped = new boolean[columns];       // whether or not the box in a column was in the air at the previous step
+        boolean[] landed = new boolean[columns];        // whether or not the box in a column landed at this step
+        int crossings = 0, landings = 0;
+        for (long step = START; step < START + STEPS; step++) {
+            transporter.savePositions();
+            transporter.deploy(step, bird, 0);
+            transporter.capture(snapshot);
+            Arrays.fill(landed, false);
+            while (events.poll(cursor)) {
+                if (cursor.type == GameEvents.BOX_LANDED) landed[cursor.a] = true;
+            }
+            for (int i = 0; i < columns; i++) {
+                if (dropped[i] && snapshot.boxY[i] != snapshot.boxPreviousY[i]) {
+                    int from = transporter.getMappedY(snapshot.boxPreviousY[i]);
+                    int to = transporter.getMappedY(snapshot.boxY[i]);
+                    for (int row = Math.max(from, 0); row <= to; row++) {
+                        // the box is the nearest wall of a bird in the column next to it
+                        int[] bounds = i + 1 < columns ? transporter.getActiveBoxBounds(i + 1, row) : transporter.getActiveBoxBounds(i - 1, row);
+                        int wall = i + 1 < columns ? bounds[0] : bounds[1];
+                        int expected = i + 1 < columns ? (i + 1) * boxWidth : i * boxWidth;
+                        if (wall != expected) {
+                            throw new AssertionError("seed " + seed + ", step " + step + ": the box in column " + i + " went from row " + from
+                                    + " to row " + to + " but isn't a wall in row " + row + " (" + wall + ")");
+                        }
+                    }
+                    if (to - Math.max(from, 0) > 1) crossings++;
+                    if (to - Math.max(from, 0) > 0 && landed[i]) landings++;
+                }
+                dropped[i] = snapshot.boxVisible[i];
+            }
+        }
+        if (crossings == 0) throw new AssertionError("seed " + seed + ": no box crossed more than one row in a step");
+        if (landings == 0) throw new AssertionError("seed " + seed + ": no box crossed a row on the step it landed");
+        System.out.println("TransporterSweptTest seed " + seed + " passed (" + crossings + " steps crossing more than one row, "
+                + landings + " steps crossing a row as a box landed)");
+    }
+}
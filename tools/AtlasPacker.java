@@ -0,0 +1,107 @@
+/**
+ * @File: AtlasPacker.java
+ * @Author: Abhi Gupta
+ * @Description: This build tool packs the images in /imgs into texture atlas pages (atlas-<page>.png) along with an index of where
+ *               each image is (atlas.txt). It has to be run again whenever one of the images changes:
+ *               java tools/AtlasPacker.java imgs src/sample
+ */
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class AtlasPacker {
+    // the name that the game uses for each image, the page of the atlas it belongs to and the image's file in /imgs
+    private final static String[][] IMAGES = {
+            {"smallClouds", "scenery", "SmallClouds.png"},
+            {"bigClouds", "scenery", "BigClouds.png"},
+            {"birdRight", "sprites", "Bird.png"},
+            {"birdLeft", "sprites", "Bird Left.png"},
+            {"lightBox", "sprites", "BoxFinal.png"},
+            {"darkBox", "sprites", "BoxDarkFinal.png"},
+            {"warningSignOn", "sprites", "WarningSignOn.png"},
+            {"warningSignOff", "sprites", "WarningSignOff.png"},
+            {"keyRightUp", "menu", "RightKeyUp.png"},
+            {"keyRightDown", "menu", "RightKeyDown.png"},
+            {"menu", "menu", "Menu.png"},
+    };
+    private final static int PADDING = 1;      // the pixels between images, so that smoothing never bleeds one into its neighbour
+    private final static int MIN_WIDTH = 512;
+
+    private static class Region {
+        String name;
+        String page;
+        BufferedImage image;
+        int x, y;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: java tools/AtlasPacker.java <image folder> <output folder>");
+            System.exit(1);
+        }
+        File input = new File(args[0]);
+        File output = new File(args[1]);
+
+        ArrayList<Region> regions = new ArrayList<>();
+        LinkedHashMap<String, ArrayList<Region>> pages = new LinkedHashMap<>();
+        for (String[] entry : IMAGES) {
+            Region region = new Region();
+            region.name = entry[0];
+            region.page = entry[1];
+            region.image = ImageIO.read(new File(input, entry[2]));
+            regions.add(region);
+            pages.computeIfAbsent(region.page, page -> new ArrayList<>()).add(region);
+        }
+        for (Map.Entry<String, ArrayList<Region>> page : pages.entrySet()) {
+            BufferedImage atlas = pack(page.getValue());
+            ImageIO.write(atlas, "png", new File(output, "atlas-" + page.getKey() + ".png"));
+            System.out.println("Packed " + page.getValue().size() + " images into a " + atlas.getWidth() + "x" + atlas.getHeight() + " page (" + page.getKey() + ")");
+        }
+
+        try (PrintWriter index = new PrintWriter(new File(output, "atlas.txt"))) {
+            index.println("# Generated by tools/AtlasPacker.java - name page x y width height");
+            for (Region region : regions) {
+                index.println(region.name + " " + region.page + " " + region.x + " " + region.y + " " + region.image.getWidth() + " " + region.image.getHeight());
+            }
+        }
+    }
+
+    /**
+     * Places the images of a single page on shelves and draws them into the page's atlas
+     */
+    private static BufferedImage pack(ArrayList<Region> regions) {
+        int atlasWidth = MIN_WIDTH;
+        for (Region region : regions) {
+            atlasWidth = Math.max(atlasWidth, region.image.getWidth());
+        }
+
+        // Shelf packing
+        ArrayList<Region> sorted = new ArrayList<>(regions);
+        sorted.sort(Comparator.comparingInt((Region r) -> r.image.getHeight()).reversed());
+        int x = 0, y = 0, shelfHeight = 0;
+        for (Region region : sorted) {
+            if (x + region.image.getWidth() > atlasWidth) {     // starts a new shelf
+                x = 0;
+                y += shelfHeight + PADDING;
+                shelfHeight = 0;
+            }
+            region.x = x; region.y = y;
+            x += region.image.getWidth() + PADDING;
+            shelfHeight = Math.max(shelfHeight, region.image.getHeight());
+        }
+        int atlasHeight = y + shelfHeight;
+
+        BufferedImage atlas = new BufferedImage(atlasWidth, atlasHeight, BufferedImage.TYPE_INT_ARGB);
+        for (Region region : regions) {
+            atlas.getGraphics().drawImage(region.image, region.x, region.y, null);
+        }
+        return atlas;
+    }
+}